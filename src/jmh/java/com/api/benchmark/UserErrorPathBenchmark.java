@@ -0,0 +1,105 @@
+package com.api.benchmark;
+
+import com.api.ApiApplication;
+import com.api.dto.user.UserMapper;
+import com.api.entity.User;
+import com.api.exception.GlobalExceptionHandler;
+import com.api.exception.user.UserNotFoundException;
+import com.api.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a cached 200 lookup with a 404 probe, from the service call to the serialized body the
+ * controller or exception handler would write. The handler sees a JSON request, as it would under MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserErrorPathBenchmark {
+    private static final int USERS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private GlobalExceptionHandler exceptionHandler;
+    private ObjectMapper objectMapper;
+    private List<UUID> ids;
+    private List<UUID> missingIds;
+    private RequestAttributes jsonRequest;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:error-path",
+                        "api.cache.users.negative-ttl=1h",
+                        "logging.level.root=WARN"
+                )
+                .run();
+        userService = context.getBean(UserService.class);
+        exceptionHandler = context.getBean(GlobalExceptionHandler.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) users.add(User.builder().name("User " + i).email("user" + i + "@gmail.com").password("12345678").build());
+
+        ids = userService.saveUsers(users).stream()
+                .map(result -> result.getUser().getId())
+                .toList();
+
+        missingIds = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) missingIds.add(UUID.randomUUID());
+
+        HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> method.getName().equals("getHeader") && HttpHeaders.ACCEPT.equals(args[0]) ? MediaType.APPLICATION_JSON_VALUE : null);
+        jsonRequest = new ServletRequestAttributes(request);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] found() throws Exception {
+        return objectMapper.writeValueAsBytes(UserMapper.toUserResponseDto(userService.getUserById(pick(ids))));
+    }
+
+    @Benchmark
+    public byte[] notFound() {
+        RequestContextHolder.setRequestAttributes(jsonRequest);
+
+        try {
+            userService.getUserById(pick(missingIds));
+            throw new IllegalStateException("User should not exist");
+        } catch (UserNotFoundException ex) {
+            return (byte[]) exceptionHandler.handleUserNotFoundException(ex).getBody();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static UUID pick(List<UUID> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
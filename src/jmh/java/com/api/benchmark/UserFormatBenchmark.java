@@ -0,0 +1,60 @@
+package com.api.benchmark;
+
+import com.api.dto.user.UserPageResponseDto;
+import com.api.dto.user.UserResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserFormatBenchmark {
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private UserPageResponseDto page;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        List<UserResponseDto> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) users.add(new UserResponseDto(UUID.randomUUID(), "User " + i, "user" + i + "@gmail.com"));
+
+        page = new UserPageResponseDto(users, null);
+        encodedPage = objectMapper.writeValueAsBytes(page);
+
+        System.out.printf("%n%s: %d bytes for %d users (%.1f bytes per user)%n",
+                format, encodedPage.length, size, (double) encodedPage.length / size);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public UserPageResponseDto decode() throws Exception {
+        return objectMapper.readValue(encodedPage, UserPageResponseDto.class);
+    }
+}
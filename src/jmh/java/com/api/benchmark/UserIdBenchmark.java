@@ -0,0 +1,73 @@
+package com.api.benchmark;
+
+import com.api.entity.id.UuidStyle;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserIdBenchmark {
+    private static final int PRELOADED_ROWS = 200_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    private UuidStyle style;
+
+    // A small page cache makes the index outgrow memory, as it would in production.
+    // Point at a Postgres-compatible database with -p url=... once its driver is on the classpath.
+    @Param({"jdbc:h2:file:./target/jmh/user-ids;CACHE_SIZE=2048"})
+    private String url;
+
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(url, "sa", "");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists user_ids");
+            statement.execute("create table user_ids (id uuid primary key, name varchar(255))");
+        }
+
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("insert into user_ids (id, name) values (?, ?)");
+
+        for (int i = 0; i < PRELOADED_ROWS / BATCH_SIZE; i++) insertBatch();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public UUID generate() {
+        return style.next();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, style.next());
+            insert.setString(2, "User");
+            insert.addBatch();
+        }
+
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+}
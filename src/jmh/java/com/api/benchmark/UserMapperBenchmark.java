@@ -0,0 +1,48 @@
+package com.api.benchmark;
+
+import com.api.dto.user.UserMapper;
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+    private static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3/GqOmLlwzXBxz5lUUsmJWS";
+
+    private UserRequestDto request;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        request = new UserRequestDto("Test", "test@gmail.com", "12345678");
+        user = new User(UUID.randomUUID(), "Test", "test@gmail.com", PASSWORD_HASH, null);
+    }
+
+    @Benchmark
+    public User toUser() {
+        return UserMapper.toUser(request, PASSWORD_HASH);
+    }
+
+    @Benchmark
+    public UserResponseDto toUserResponseDto() {
+        return UserMapper.toUserResponseDto(user);
+    }
+
+    @Benchmark
+    public UserResponseDto toUserResponseDtoWithBuilder() {
+        return UserResponseDto.builder()
+                .id(user.getId())
+                .nome(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+}
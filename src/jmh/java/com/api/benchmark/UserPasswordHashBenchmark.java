@@ -0,0 +1,33 @@
+package com.api.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of one BCrypt hash per strength on this host. Set api.users.password.strength to the highest
+ * strength whose score fits the sign-up latency budget; a hasher thread serves 1000 / score sign-ups per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class UserPasswordHashBenchmark {
+    @Param({"8", "9", "10", "11", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+    }
+
+    @Benchmark
+    public String hash() {
+        return encoder.encode("12345678");
+    }
+}
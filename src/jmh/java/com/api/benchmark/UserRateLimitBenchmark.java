@@ -0,0 +1,58 @@
+package com.api.benchmark;
+
+import com.api.limit.AdaptiveConcurrencyLimiter;
+import com.api.limit.TokenBucketLimiter;
+import com.api.limit.UserRateLimitProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserRateLimitBenchmark {
+    private final String[] clients = new String[1024];
+
+    private TokenBucketLimiter open;
+    private TokenBucketLimiter exhausted;
+    private AdaptiveConcurrencyLimiter route;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < clients.length; i++) clients[i] = "10.0." + (i >> 8) + "." + (i & 255);
+
+        open = new TokenBucketLimiter(16_000_000, 16_000, 100_000);
+        exhausted = new TokenBucketLimiter(1, 1, 100_000);
+        for (String client : clients) exhausted.tryAcquire(client);
+
+        route = new AdaptiveConcurrencyLimiter(new UserRateLimitProperties.Concurrency());
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean allowed(Cursor cursor) {
+        return open.tryAcquire(clients[cursor.next++ & 1023]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean rejected(Cursor cursor) {
+        return exhausted.tryAcquire(clients[cursor.next++ & 1023]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean routePermit() {
+        boolean acquired = route.tryAcquire();
+        if (acquired) route.release(1_000, false);
+        return acquired;
+    }
+}
@@ -0,0 +1,59 @@
+package com.api.benchmark;
+
+import com.api.entity.User;
+import com.api.entity.UserSummary;
+import com.api.entity.id.UuidV7;
+import com.api.index.UserSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserSearchBenchmark {
+    private static final String[] FIRST_NAMES = {
+            "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique", "Isabela", "João",
+            "Karina", "Lucas", "Mariana", "Nicolas", "Olívia", "Pedro", "Rafaela", "Samuel", "Tatiana", "Vinícius"
+    };
+    private static final String[] SYLLABLES = {"al", "ba", "ca", "de", "fer", "go", "li", "ma", "nu", "que", "ro", "sil", "ta", "va", "xi"};
+
+    @Param({"1000000"})
+    private int users;
+
+    @Param({"mar", "mariana sil", "user4242", "albukerque"})
+    private String query;
+
+    private UserSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new UserSearchIndex(null, null);
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < users; i++) {
+            String surname = surname(random) + " " + surname(random);
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + surname;
+            index.put(new User(UuidV7.next(), name, "user" + i + "@gmail.com", null, 0L));
+        }
+
+        index.put(new User(UuidV7.next(), "Fernanda Albuquerque", "fernanda@gmail.com", null, 0L));
+    }
+
+    private static String surname(SplittableRandom random) {
+        StringBuilder surname = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) surname.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        return surname.toString();
+    }
+
+    @Benchmark
+    public List<UserSummary> search() {
+        return index.search(query, null, 21);
+    }
+}
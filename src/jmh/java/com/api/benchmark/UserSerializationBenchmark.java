@@ -0,0 +1,76 @@
+package com.api.benchmark;
+
+import com.api.dto.user.UserJsonWriter;
+import com.api.dto.user.UserMapper;
+import com.api.dto.user.UserResponseDto;
+import com.api.entity.User;
+import com.api.entity.UserSummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSerializationBenchmark {
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter userResponseDtoWriter;
+    private List<UserResponseDto> users;
+    private List<UserSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        userResponseDtoWriter = objectMapper.writerFor(UserResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        users = new ArrayList<>(size);
+        summaries = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            User user = new User(UUID.randomUUID(), "User " + i, "user" + i + "@gmail.com", "12345678", null);
+            summaries.add(new Summary(user.getId(), user.getName(), user.getEmail(), 0L));
+            users.add(UserMapper.toUserResponseDto(user));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws Exception {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public void streamUsersThroughDto() throws Exception {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            generator.writeStartArray();
+            for (UserSummary user : summaries) userResponseDtoWriter.writeValue(generator, UserMapper.toUserResponseDto(user));
+            generator.writeEndArray();
+        }
+    }
+
+    @Benchmark
+    public void streamUsersDirectly() throws Exception {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            generator.writeStartArray();
+            for (UserSummary user : summaries) UserJsonWriter.writeUserResponseDto(user, generator);
+            generator.writeEndArray();
+        }
+    }
+
+    private record Summary(UUID getId, String getName, String getEmail, Long getVersion) implements UserSummary {
+    }
+}
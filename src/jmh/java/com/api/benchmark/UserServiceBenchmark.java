@@ -0,0 +1,93 @@
+package com.api.benchmark;
+
+import com.api.ApiApplication;
+import com.api.entity.User;
+import com.api.entity.UserSummary;
+import com.api.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    private static final int USERS = 10_000;
+
+    @Param({"10000", "0"})
+    private long cacheSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "api.cache.users.maximum-size=" + cacheSize,
+                        "logging.level.root=WARN"
+                )
+                .run();
+        userService = context.getBean(UserService.class);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) users.add(newUser());
+
+        ids = userService.saveUsers(users).stream()
+                .map(result -> result.getUser().getId())
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserSummary getUserById() {
+        return userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    public List<UserSummary> getUsers() {
+        return userService.getUsers(randomId(), 20);
+    }
+
+    @Benchmark
+    public User saveUser() {
+        return userService.saveUser(newUser());
+    }
+
+    @Benchmark
+    public User updateUser() {
+        return userService.updateUser(randomId(), User.builder().name("User " + sequence.incrementAndGet()).build());
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private User newUser() {
+        long n = sequence.incrementAndGet();
+        return User.builder()
+                .name("User " + n)
+                .email("user" + n + "@gmail.com")
+                .password("12345678")
+                .build();
+    }
+}
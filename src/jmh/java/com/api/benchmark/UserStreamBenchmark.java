@@ -0,0 +1,107 @@
+package com.api.benchmark;
+
+import com.api.ApiApplication;
+import com.api.dto.user.UserJsonWriter;
+import com.api.entity.UserSummary;
+import com.api.service.UserService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks the whole users table through keyset pages and through the NDJSON stream. The fork runs with a
+ * 256 MB heap, which cannot hold a million users at once, so finishing the 1M-row walk with the same time
+ * per row as the 100k one shows memory stays flat; {@code -prof gc} reports the allocation per walk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class UserStreamBenchmark {
+    private static final int PAGE_SIZE = 100;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private Path database;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup
+    public void setUp() throws IOException {
+        database = Files.createTempDirectory("user-stream-benchmark");
+        context = new SpringApplicationBuilder(ApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:file:" + database.resolve("users"),
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "logging.level.root=WARN"
+                )
+                .run();
+        userService = context.getBean(UserService.class);
+
+        // Rows go in through JDBC so the in-memory indexes, loaded at startup, stay empty and the
+        // H2 file database keeps them off the heap.
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int offset = 0; offset < rows; offset += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = offset; i < Math.min(offset + BATCH_SIZE, rows); i++) {
+                batch.add(new Object[]{UUID.randomUUID(), "User " + i, "user" + i + "@gmail.com", "12345678"});
+            }
+            jdbcTemplate.batchUpdate("insert into users (id, name, email, password, version) values (?, ?, ?, ?, 0)", batch);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(database)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int keysetPages() {
+        int count = 0;
+        UUID after = null;
+        List<UserSummary> page;
+        do {
+            page = userService.getUsers(after, PAGE_SIZE);
+            count += page.size();
+            if (!page.isEmpty()) after = page.get(page.size() - 1).getId();
+        } while (page.size() == PAGE_SIZE);
+        return count;
+    }
+
+    @Benchmark
+    public void streamNdjson() throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(OutputStream.nullOutputStream())) {
+            userService.streamUsers(user -> {
+                try {
+                    UserJsonWriter.writeUserResponseDto(user, generator);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.api.benchmark;
+
+import com.api.entity.User;
+import com.api.queue.UserWriteJournal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journals sign-ups from several request threads at once, each completed right away as if its batch had been
+ * flushed. Throughput against {@code @Threads(1)} shows how many appends share an fsync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class UserWriteJournalBenchmark {
+    private Path directory;
+    private UserWriteJournal journal;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createDirectories(Path.of("target", "jmh"));
+        journal = new UserWriteJournal(directory.resolve("user-write-behind.journal"), new ObjectMapper(), 10_000);
+        journal.open();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Benchmark
+    public void appendAndComplete() throws IOException {
+        User user = new User(UUID.randomUUID(), "Test", UUID.randomUUID() + "@gmail.com", "12345678", null);
+        journal.append(user);
+        journal.complete(List.of(user.getId()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.api.load;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Map;
+
+/**
+ * One workload's outcome; latencies are in milliseconds, throughput in successful responses per second, and
+ * responses are counted by status code, with failed connections under "failed". The query-cache hit rate is
+ * that of the {@code users.queries} region over the run, and null when the app runs in another JVM. The peak in
+ * flight is the most requests awaiting a response at once, and so the most connections open at once.
+ */
+record LoadResult(long requests, long errors, double throughput, double p50, double p99, double p999, Map<String, Long> statuses,
+                  Double queryCacheHitRate, int peakInFlight) {
+    @JsonIgnore
+    double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+}
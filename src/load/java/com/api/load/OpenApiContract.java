@@ -0,0 +1,156 @@
+package com.api.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The operations of a running app, read from its OpenAPI document. Workloads name operations by
+ * operationId and get ready-to-send requests back, so paths, methods, parameters and request bodies come
+ * from the contract; an operation or parameter that disappears from it fails the run instead of being
+ * silently load-tested against a 404.
+ */
+final class OpenApiContract {
+    static final List<String> NAMES = List.of("Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Heitor",
+            "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sofia", "Thiago", "Vitória", "Yuri");
+
+    private final URI baseUri;
+    private final JsonNode schemas;
+    private final Map<String, Operation> operations = new HashMap<>();
+
+    private OpenApiContract(URI baseUri, JsonNode document) {
+        this.baseUri = baseUri;
+        this.schemas = document.path("components").path("schemas");
+
+        for (Iterator<Map.Entry<String, JsonNode>> paths = document.path("paths").fields(); paths.hasNext(); ) {
+            Map.Entry<String, JsonNode> path = paths.next();
+
+            for (Iterator<Map.Entry<String, JsonNode>> methods = path.getValue().fields(); methods.hasNext(); ) {
+                Map.Entry<String, JsonNode> method = methods.next();
+                JsonNode operation = method.getValue();
+                Set<String> parameters = new HashSet<>();
+                operation.path("parameters").forEach(parameter -> parameters.add(parameter.path("name").asText()));
+                JsonNode requestSchema = operation.path("requestBody").path("content").path("application/json").path("schema");
+
+                operations.put(operation.path("operationId").asText(),
+                        new Operation(method.getKey().toUpperCase(), path.getKey(), parameters, requestSchema.isMissingNode() ? null : requestSchema));
+            }
+        }
+    }
+
+    static OpenApiContract load(HttpClient client, URI baseUri, ObjectMapper objectMapper) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/v3/api-docs")).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) throw new IllegalStateException("OpenAPI document unavailable: HTTP " + response.statusCode());
+
+        return new OpenApiContract(baseUri, objectMapper.readTree(response.body()));
+    }
+
+    /** Builds a request for {@code operationId}; path and query parameters must be declared by the operation. */
+    HttpRequest request(String operationId, Map<String, ?> parameters) {
+        return request(operationId, parameters, Map.of());
+    }
+
+    /**
+     * As {@link #request(String, Map)}, with a body generated from the request schema and {@code fields} set
+     * on it; a field mapped to {@code null} is left out.
+     */
+    HttpRequest request(String operationId, Map<String, ?> parameters, Map<String, String> fields) {
+        Operation operation = operations.get(operationId);
+        if (operation == null) throw new IllegalStateException("Operation not in the contract: " + operationId);
+
+        String path = operation.path;
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+
+        for (Map.Entry<String, ?> parameter : parameters.entrySet()) {
+            if (!operation.parameters.contains(parameter.getKey())) {
+                throw new IllegalStateException(operationId + " has no parameter " + parameter.getKey());
+            }
+
+            String value = URLEncoder.encode(String.valueOf(parameter.getValue()), StandardCharsets.UTF_8);
+            String placeholder = "{" + parameter.getKey() + "}";
+
+            if (path.contains(placeholder)) path = path.replace(placeholder, value);
+            else query.add(parameter.getKey() + "=" + value);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path + query)).header("Accept", "application/json");
+
+        if (operation.requestSchema == null) return builder.method(operation.method, HttpRequest.BodyPublishers.noBody()).build();
+
+        JsonNode body = generate(null, operation.requestSchema);
+        if (body instanceof ObjectNode object) {
+            fields.forEach((field, value) -> {
+                if (value == null) object.remove(field);
+                else object.put(field, value);
+            });
+        }
+
+        return builder.header("Content-Type", "application/json")
+                .method(operation.method, HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    /** A valid example of {@code schema}; string properties are filled by name so sign-ups pass validation. */
+    private JsonNode generate(String property, JsonNode schema) {
+        if (schema.has("$ref")) {
+            String ref = schema.get("$ref").asText();
+            return generate(property, schemas.path(ref.substring(ref.lastIndexOf('/') + 1)));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        return switch (schema.path("type").asText("object")) {
+            case "object" -> {
+                ObjectNode object = JsonNodeFactory.instance.objectNode();
+                schema.path("properties").fields().forEachRemaining(field -> object.set(field.getKey(), generate(field.getKey(), field.getValue())));
+                yield object;
+            }
+            case "array" -> {
+                ArrayNode array = JsonNodeFactory.instance.arrayNode();
+                array.add(generate(property, schema.path("items")));
+                yield array;
+            }
+            case "integer", "number" -> JsonNodeFactory.instance.numberNode(schema.path("minimum").asLong(1));
+            case "boolean" -> JsonNodeFactory.instance.booleanNode(true);
+            default -> JsonNodeFactory.instance.textNode(text(property, schema, random));
+        };
+    }
+
+    private static String text(String property, JsonNode schema, ThreadLocalRandom random) {
+        String format = schema.path("format").asText("");
+        String name = property == null ? "" : property.toLowerCase();
+
+        if (format.equals("uuid")) return UUID.randomUUID().toString();
+        if (format.equals("email") || name.contains("email")) return UUID.randomUUID() + "@load.test";
+        if (name.contains("name") || name.equals("nome")) return NAMES.get(random.nextInt(NAMES.size())) + " " + NAMES.get(random.nextInt(NAMES.size()));
+
+        int length = Math.max(12, schema.path("minLength").asInt(0));
+        if (schema.has("maxLength")) length = Math.min(length, schema.get("maxLength").asInt());
+
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) text.append((char) ('a' + random.nextInt(26)));
+        return text.toString();
+    }
+
+    private record Operation(String method, String path, Set<String> parameters, JsonNode requestSchema) {
+    }
+}
@@ -0,0 +1,303 @@
+package com.api.load;
+
+import com.api.ApiApplication;
+import com.api.repository.UserRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Replays the workloads against the API and compares throughput and latency with the stored baselines,
+ * exiting with status 1 on a regression so the build fails. Boots the app in this JVM unless
+ * {@code --target=<url>} points at one already running.
+ * <p>
+ * Baselines only mean something on the machine that recorded them, so none are checked in: record them
+ * with {@code --update-baselines} before a change and compare after it. CI does the same on one runner,
+ * recording them from the base branch of each pull request. A shared runner's speed drifts between runs, so
+ * CI runs each workload several times with {@code --repeat} and both records and compares the medians.
+ * <p>
+ * Requests are sent at each workload's arrival rate whether or not earlier ones have completed, and
+ * latency is measured from when a request was due; a harness that waits for responses before sending more
+ * would slow down with the server and hide exactly the stalls it is meant to catch.
+ * <p>
+ * Options: {@code --workloads=read-heavy,signup-spike,patch-storm}, {@code --duration=20s},
+ * {@code --warmup=5s}, {@code --repeat=1}, {@code --rate-scale=1}, {@code --max-in-flight=256}, {@code --latency-tolerance=0.5},
+ * {@code --throughput-tolerance=0.2}, {@code --update-baselines}, and {@code --app.<property>=<value>}
+ * to override a property of the booted app.
+ */
+public final class UserLoadTest {
+    // Requests sent but not yet answered, each on its own connection; past it, the arrival rate is not kept.
+    private static final int MAX_IN_FLIGHT = 256;
+    private static final int SEED_USERS = 200;
+
+    private UserLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:load-test",
+                "--api.users.rate-limit.enabled=false", "--spring.main.banner-mode=off", "--logging.level.root=WARN"));
+
+        for (String arg : args) {
+            String option = arg.replaceFirst("^--", "");
+            int separator = option.indexOf('=');
+            String key = separator < 0 ? option : option.substring(0, separator);
+            String value = separator < 0 ? "true" : option.substring(separator + 1);
+
+            if (key.startsWith("app.")) appArgs.add("--" + key.substring(4) + "=" + value);
+            else options.put(key, value);
+        }
+
+        List<Workload> workloads = new ArrayList<>();
+        for (String id : options.getOrDefault("workloads", "read-heavy,signup-spike,patch-storm").split(",")) workloads.add(Workload.of(id.trim()));
+
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "20s"));
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "5s"));
+        int repeat = Integer.parseInt(options.getOrDefault("repeat", "1"));
+        double rateScale = Double.parseDouble(options.getOrDefault("rate-scale", "1"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", String.valueOf(MAX_IN_FLIGHT)));
+        File baselines = new File(options.getOrDefault("baselines", "src/load/baselines.json"));
+        File resultsFile = new File(options.getOrDefault("results", "target/load-results.json"));
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ConfigurableApplicationContext app = null;
+        int status;
+
+        try {
+            URI target;
+            SessionFactoryImplementor sessionFactory = null;
+
+            if (options.containsKey("target")) {
+                target = URI.create(options.get("target"));
+            } else {
+                app = new SpringApplicationBuilder(ApiApplication.class).run(appArgs.toArray(String[]::new));
+                target = URI.create("http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort());
+                sessionFactory = app.getBean(EntityManagerFactory.class).unwrap(SessionFactoryImplementor.class);
+            }
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            OpenApiContract contract = OpenApiContract.load(client, target, objectMapper);
+            List<UUID> users = seed(client, contract, objectMapper);
+            Map<String, LoadResult> results = new LinkedHashMap<>();
+
+            for (Workload workload : workloads) {
+                run(workload, warmup, rateScale, maxInFlight, client, contract, users, sessionFactory);
+
+                List<LoadResult> runs = new ArrayList<>(repeat);
+                for (int i = 0; i < repeat; i++) runs.add(run(workload, duration, rateScale, maxInFlight, client, contract, users, sessionFactory));
+                results.put(workload.id(), median(runs));
+            }
+
+            resultsFile.getParentFile().mkdirs();
+            objectMapper.writeValue(resultsFile, results);
+
+            if (options.containsKey("update-baselines")) {
+                Map<String, LoadResult> updated = baselines.exists() ? objectMapper.readValue(baselines, new TypeReference<>() { }) : new LinkedHashMap<>();
+                updated.putAll(results);
+                objectMapper.writeValue(baselines, updated);
+                report(results, Map.of(), 0, 0);
+                System.out.println("Baselines updated: " + baselines);
+                status = 0;
+            } else {
+                Map<String, LoadResult> expected = baselines.exists() ? objectMapper.readValue(baselines, new TypeReference<>() { }) : Map.of();
+                List<String> regressions = report(results, expected,
+                        Double.parseDouble(options.getOrDefault("latency-tolerance", "0.5")),
+                        Double.parseDouble(options.getOrDefault("throughput-tolerance", "0.2")));
+
+                regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+                status = regressions.isEmpty() ? 0 : 1;
+            }
+        } finally {
+            if (app != null) app.close();
+        }
+
+        System.exit(status);
+    }
+
+    private static List<UUID> seed(HttpClient client, OpenApiContract contract, ObjectMapper objectMapper) throws InterruptedException {
+        List<UUID> users = Collections.synchronizedList(new ArrayList<>(SEED_USERS));
+        Semaphore inFlight = new Semaphore(8);
+
+        for (int i = 0; i < SEED_USERS; i++) {
+            inFlight.acquire();
+            client.sendAsync(contract.request("saveUser", Map.of()), HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+                try {
+                    if (failure == null && response.statusCode() < 300) users.add(UUID.fromString(objectMapper.readTree(response.body()).path("id").asText()));
+                } catch (Exception ignored) {
+                    // Counted below: the run needs every seed user.
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        inFlight.acquire(8);
+        if (users.size() < SEED_USERS) throw new IllegalStateException("Only " + users.size() + " of " + SEED_USERS + " seed users were created");
+        return List.copyOf(users);
+    }
+
+    private static LoadResult run(Workload workload, Duration duration, double rateScale, int maxInFlight, HttpClient client,
+                                  OpenApiContract contract, List<UUID> users, SessionFactoryImplementor sessionFactory) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder errors = new LongAdder();
+        LongAdder completed = new LongAdder();
+        Map<String, LongAdder> statuses = new ConcurrentSkipListMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        int peakInFlight = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] queryCacheBefore = queryCacheCounts(sessionFactory);
+
+        long start = System.nanoTime();
+        long length = duration.toNanos();
+        long due = start;
+        long requests = 0;
+
+        while (due - start < length) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            inFlight.acquire();
+            peakInFlight = Math.max(peakInFlight, maxInFlight - inFlight.availablePermits());
+            long scheduled = due;
+
+            client.sendAsync(workload.next(contract, users, random), HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                latencies.recordValue(System.nanoTime() - scheduled);
+                statuses.computeIfAbsent(failure != null ? "failed" : String.valueOf(response.statusCode()), status -> new LongAdder()).increment();
+                if (failure != null || response.statusCode() >= 400) errors.increment();
+                else completed.increment();
+                inFlight.release();
+            });
+
+            requests++;
+            due += (long) (1e9 / (workload.rate((double) (due - start) / length) * rateScale));
+        }
+
+        // Measured until the last response, so a server that falls behind the arrival rate shows up as
+        // throughput below it rather than as the rate requests were sent at.
+        inFlight.acquire(maxInFlight);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        Map<String, Long> counts = new LinkedHashMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+
+        return new LoadResult(requests, errors.sum(), round(completed.sum() / elapsed), millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)), counts,
+                queryCacheHitRate(queryCacheBefore, queryCacheCounts(sessionFactory)), peakInFlight);
+    }
+
+    // Each latency, the throughput and the hit rate are the median over the runs; requests, errors and
+    // statuses are totals, so the error rate is that of every request sent.
+    private static LoadResult median(List<LoadResult> runs) {
+        if (runs.size() == 1) return runs.get(0);
+
+        Map<String, Long> statuses = new TreeMap<>();
+        for (LoadResult run : runs) run.statuses().forEach((status, count) -> statuses.merge(status, count, Long::sum));
+
+        List<Double> hitRates = runs.stream().map(LoadResult::queryCacheHitRate).filter(Objects::nonNull).toList();
+
+        return new LoadResult(runs.stream().mapToLong(LoadResult::requests).sum(), runs.stream().mapToLong(LoadResult::errors).sum(),
+                median(runs, LoadResult::throughput), median(runs, LoadResult::p50), median(runs, LoadResult::p99), median(runs, LoadResult::p999),
+                statuses, hitRates.isEmpty() ? null : median(hitRates, Double::doubleValue),
+                runs.stream().mapToInt(LoadResult::peakInFlight).max().orElse(0));
+    }
+
+    private static <T> double median(List<T> values, ToDoubleFunction<T> metric) {
+        double[] sorted = values.stream().mapToDouble(metric).sorted().toArray();
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    // Hits and misses of the query-cache region so far, or null when the app isn't in this JVM.
+    private static long[] queryCacheCounts(SessionFactoryImplementor sessionFactory) {
+        if (sessionFactory == null) return null;
+
+        // Asked for before the first cacheable query creates the region, Hibernate would remember the region
+        // as missing and fail every later query-cache miss.
+        if (sessionFactory.getCache().getQueryResultsCacheStrictly(UserRepository.QUERY_CACHE_REGION) == null) return new long[2];
+
+        CacheRegionStatistics region = sessionFactory.getStatistics().getQueryRegionStatistics(UserRepository.QUERY_CACHE_REGION);
+        return new long[]{region.getHitCount(), region.getMissCount()};
+    }
+
+    private static Double queryCacheHitRate(long[] before, long[] after) {
+        if (before == null) return null;
+
+        long hits = after[0] - before[0];
+        long lookups = hits + after[1] - before[1];
+        return lookups == 0 ? null : Math.round(hits * 1000.0 / lookups) / 1000.0;
+    }
+
+    private static List<String> report(Map<String, LoadResult> results, Map<String, LoadResult> baselines, double latencyTolerance,
+                                       double throughputTolerance) {
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%n%-14s %9s %8s %10s %10s %10s %10s %9s %9s  %s%n", "workload", "requests", "errors", "req/s", "p50 ms", "p99 ms",
+                "p99.9 ms", "qc hits", "in flight", "statuses");
+
+        for (Map.Entry<String, LoadResult> entry : results.entrySet()) {
+            LoadResult result = entry.getValue();
+            System.out.printf("%-14s %9d %8d %10.1f %10.3f %10.3f %10.3f %9s %9d  %s%n", entry.getKey(), result.requests(), result.errors(),
+                    result.throughput(), result.p50(), result.p99(), result.p999(),
+                    result.queryCacheHitRate() == null ? "-" : String.format("%.1f%%", result.queryCacheHitRate() * 100), result.peakInFlight(),
+                    result.statuses());
+
+            LoadResult baseline = baselines.get(entry.getKey());
+            if (baseline == null) continue;
+
+            String workload = entry.getKey();
+            slower(regressions, workload, "p50", result.p50(), baseline.p50(), latencyTolerance);
+            slower(regressions, workload, "p99", result.p99(), baseline.p99(), latencyTolerance);
+            slower(regressions, workload, "p99.9", result.p999(), baseline.p999(), latencyTolerance);
+
+            if (result.throughput() < baseline.throughput() * (1 - throughputTolerance)) {
+                regressions.add(String.format("%s throughput %.1f req/s, baseline %.1f", workload, result.throughput(), baseline.throughput()));
+            }
+
+            if (result.errorRate() > baseline.errorRate() + 0.01) {
+                regressions.add(String.format("%s error rate %.2f%%, baseline %.2f%%", workload, result.errorRate() * 100, baseline.errorRate() * 100));
+            }
+        }
+
+        return regressions;
+    }
+
+    private static void slower(List<String> regressions, String workload, String percentile, double actual, double baseline, double tolerance) {
+        if (actual > baseline * (1 + tolerance)) {
+            regressions.add(String.format("%s %s %.3f ms, baseline %.3f ms", workload, percentile, actual, baseline));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
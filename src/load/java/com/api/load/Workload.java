@@ -0,0 +1,94 @@
+package com.api.load;
+
+import java.net.http.HttpRequest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** A traffic mix and its arrival rate, in requests per second, over the course of a run. */
+enum Workload {
+    /** Lookups by id dominate, with list and search pages and the odd rename. */
+    READ_HEAVY("read-heavy") {
+        @Override
+        double rate(double progress) {
+            return 100;
+        }
+
+        @Override
+        HttpRequest next(OpenApiContract contract, List<UUID> users, ThreadLocalRandom random) {
+            int roll = random.nextInt(100);
+
+            if (roll < 80) return contract.request("getUserById", Map.of("id", any(users, random)));
+            if (roll < 90) return contract.request("getUsers", Map.of("size", 20));
+            if (roll < 98) return contract.request("searchUsers", Map.of("q", any(OpenApiContract.NAMES, random)));
+            return rename(contract, any(users, random));
+        }
+    },
+
+    /** Sign-ups at a steady trickle, then three times that for the middle third of the run. */
+    SIGNUP_SPIKE("signup-spike") {
+        @Override
+        double rate(double progress) {
+            return progress >= 1 / 3.0 && progress < 2 / 3.0 ? 9 : 3;
+        }
+
+        @Override
+        HttpRequest next(OpenApiContract contract, List<UUID> users, ThreadLocalRandom random) {
+            if (random.nextInt(100) < 90) return contract.request("saveUser", Map.of());
+            return contract.request("getUserById", Map.of("id", any(users, random)));
+        }
+    },
+
+    /** Concurrent renames of a few hot users, read back in between. */
+    PATCH_STORM("patch-storm") {
+        private static final int HOT_USERS = 20;
+
+        @Override
+        double rate(double progress) {
+            return 50;
+        }
+
+        @Override
+        HttpRequest next(OpenApiContract contract, List<UUID> users, ThreadLocalRandom random) {
+            UUID user = users.get(random.nextInt(Math.min(HOT_USERS, users.size())));
+
+            if (random.nextInt(100) < 70) return rename(contract, user);
+            return contract.request("getUserById", Map.of("id", user));
+        }
+    };
+
+    private final String id;
+
+    Workload(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    /** Requests per second at {@code progress}, from 0 at the start of the run to 1 at its end. */
+    abstract double rate(double progress);
+
+    abstract HttpRequest next(OpenApiContract contract, List<UUID> users, ThreadLocalRandom random);
+
+    static Workload of(String id) {
+        for (Workload workload : values()) {
+            if (workload.id.equals(id)) return workload;
+        }
+
+        throw new IllegalArgumentException("Unknown workload: " + id);
+    }
+
+    private static HttpRequest rename(OpenApiContract contract, UUID user) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("email", null);
+        return contract.request("updateUser", Map.of("id", user), fields);
+    }
+
+    private static <T> T any(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
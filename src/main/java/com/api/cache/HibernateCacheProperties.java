@@ -0,0 +1,21 @@
+package com.api.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "api.cache.hibernate")
+public class HibernateCacheProperties {
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        private long maximumSize = 10_000;
+        // Null keeps entries until they are evicted by size or invalidated.
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,108 @@
+package com.api.cache;
+
+import com.api.entity.UserSummary;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+    private final AsyncCache<UUID, Optional<UserSummary>> cache;
+
+    public UserCache(UserCacheProperties properties) {
+        long ttl = properties.getTtl().toNanos();
+        long negativeTtl = properties.getNegativeTtl().toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<UUID, Optional<UserSummary>>() {
+                    @Override
+                    public long expireAfterCreate(UUID id, Optional<UserSummary> user, long currentTime) {
+                        return user.isPresent() ? ttl : negativeTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID id, Optional<UserSummary> user, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID id, Optional<UserSummary> user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<UserSummary> get(UUID id, Function<UUID, Optional<UserSummary>> loader) {
+        CompletableFuture<Optional<UserSummary>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<UserSummary>> cached = cache.get(id, (key, executor) -> loading);
+        if (cached != loading) return join(cached);
+
+        // Loaded outside the cache's lock: a load waiting for a pooled connection must not block the
+        // invalidations of transactions that are holding one.
+        try {
+            loading.complete(loader.apply(id));
+        } catch (RuntimeException | Error ex) {
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+
+        return loading.join();
+    }
+
+    /**
+     * Returns the cached user if one is already loaded, otherwise calls {@code loader} without caching the
+     * result or waiting for a load in flight. For callers inside a transaction, which hold a connection
+     * that the load in flight may be waiting for.
+     */
+    public Optional<UserSummary> peek(UUID id, Function<UUID, Optional<UserSummary>> loader) {
+        CompletableFuture<Optional<UserSummary>> cached = cache.getIfPresent(id);
+        if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) return cached.join();
+
+        return loader.apply(id);
+    }
+
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+
+        // A reader between this call and the commit would cache the old row again.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidate(id);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public Cache<UUID, Optional<UserSummary>> nativeCache() {
+        return cache.synchronous();
+    }
+
+    private static Optional<UserSummary> join(CompletableFuture<Optional<UserSummary>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.api.cache;
+
+import com.api.changes.UserChangeFeed;
+import com.api.changes.UserChangeProperties;
+import com.api.datasource.ReplicaRoutingDataSource;
+import com.api.entity.User;
+import com.api.entity.UserChange;
+import com.api.entity.UserChangeType;
+import com.api.entity.UserSummary;
+import com.api.index.UserEmailIndex;
+import com.api.index.UserSearchIndex;
+import com.api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps this node's user lookups coherent with writes made on other nodes. Every node relays every
+ * committed change from the shared outbox table, so following the feed is enough to evict cached users,
+ * refresh the search and e-mail indexes, drop Hibernate's cached copies and move the list ETag, without a
+ * broker between nodes. Changes made on this node were already applied when they committed, so applying
+ * them again changes nothing.
+ * <p>
+ * With read replicas, reads of a user changed on another node stay on the primary for the lag window, so
+ * it isn't loaded again from a replica that hasn't replayed the change yet. Cached list pages are dropped
+ * once more when the window has passed, since a page read from a lagging replica in between would
+ * otherwise be cached as current.
+ */
+@Component
+public class UserCacheInvalidator implements SmartLifecycle {
+    private final UserChangeProperties properties;
+    private final UserChangeFeed userChangeFeed;
+    private final UserCache userCache;
+    private final UserSearchIndex userSearchIndex;
+    private final UserEmailIndex userEmailIndex;
+    private final UserChangeCounter userChangeCounter;
+    private final Cache secondLevelCache;
+    private final Timer latency;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    private volatile UserChangeFeed.Subscription subscription;
+
+    public UserCacheInvalidator(UserChangeProperties properties, UserChangeFeed userChangeFeed, UserCache userCache,
+                                UserSearchIndex userSearchIndex, UserEmailIndex userEmailIndex, UserChangeCounter userChangeCounter,
+                                EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+                                ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        this.properties = properties;
+        this.userChangeFeed = userChangeFeed;
+        this.userCache = userCache;
+        this.userSearchIndex = userSearchIndex;
+        this.userEmailIndex = userEmailIndex;
+        this.userChangeCounter = userChangeCounter;
+        this.secondLevelCache = entityManagerFactory.getCache();
+        // From the mutation to its eviction here: commit, relay and feed delivery.
+        this.latency = Timer.builder("users.cache.invalidation").register(meterRegistry);
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Override
+    public void start() {
+        // From where the indexes were loaded rather than the feed's latest offset, so changes made while they
+        // loaded, and until now, are applied too.
+        long since = Math.min(userSearchIndex.loadedOffset(), userEmailIndex.loadedOffset());
+
+        subscription = userChangeFeed.subscribe(since, properties.getBatchSize(), changes -> {
+            apply(changes);
+            return true;
+        });
+    }
+
+    @Override
+    public void stop() {
+        if (subscription != null) subscription.close();
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+
+    void apply(List<UserChange> changes) {
+        boolean changed = false;
+        ReplicaRoutingDataSource replicas = replicaRoutingDataSource.getIfAvailable();
+
+        for (UserChange change : changes) {
+            UserSummary indexed = userSearchIndex.get(change.getUserId());
+
+            if (change.getType() == UserChangeType.DELETED) {
+                if (indexed != null) {
+                    // Before anything is evicted, so no read in between can go to a replica.
+                    if (replicas != null) replicas.pinToPrimary(change.getUserId());
+                    userSearchIndex.remove(change.getUserId());
+                    userEmailIndex.release(indexed.getEmail());
+                    secondLevelCache.evict(User.class, change.getUserId());
+                    changed = true;
+                }
+            } else if (indexed == null || isNewer(change, indexed)) {
+                if (replicas != null) replicas.pinToPrimary(change.getUserId());
+                if (indexed != null && !Objects.equals(indexed.getEmail(), change.getEmail())) userEmailIndex.release(indexed.getEmail());
+                userEmailIndex.reserve(change.getEmail());
+                userSearchIndex.put(User.builder()
+                        .id(change.getUserId())
+                        .name(change.getName())
+                        .email(change.getEmail())
+                        .version(change.getVersion())
+                        .build());
+                secondLevelCache.evict(User.class, change.getUserId());
+                changed = true;
+            }
+
+            userCache.invalidate(change.getUserId());
+            latency.record(Duration.between(change.getChangedAt(), Instant.now()));
+        }
+
+        // Changes made on this node are indexed already, and Hibernate invalidated its own caches when they
+        // committed; doing it again would only cost clients a 200 and the next queries a database round trip.
+        if (changed) {
+            evictQueries();
+            userChangeCounter.increment();
+        }
+
+        if (replicas != null && !changes.isEmpty()) replicas.afterReplicasCaughtUp(this::evictQueries);
+    }
+
+    private void evictQueries() {
+        secondLevelCache.unwrap(org.hibernate.Cache.class).evictQueryRegion(UserRepository.QUERY_CACHE_REGION);
+    }
+
+    private static boolean isNewer(UserChange change, UserSummary indexed) {
+        return change.getVersion() == null || indexed.getVersion() == null || change.getVersion() > indexed.getVersion();
+    }
+}
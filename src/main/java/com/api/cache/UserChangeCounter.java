@@ -0,0 +1,32 @@
+package com.api.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class UserChangeCounter {
+    private final String nonce = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private final AtomicLong changes = new AtomicLong();
+
+    public void increment() {
+        changes.incrementAndGet();
+
+        // A reader between this increment and the commit would tag the old rows with the new value.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    changes.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    public String current() {
+        return nonce + "-" + changes.get();
+    }
+}
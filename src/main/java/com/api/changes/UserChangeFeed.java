@@ -0,0 +1,173 @@
+package com.api.changes;
+
+import com.api.entity.UserChange;
+import com.api.exception.user.UserChangesExpiredException;
+import com.api.repository.UserChangeRepository;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Serves published changes by offset. The most recent ones are kept in memory, so consumers that keep up
+ * never reach the database; a consumer further behind reads the outbox table directly.
+ * <p>
+ * Subscriptions are ended when the context stops, before the web server's graceful shutdown, so open
+ * long polls and streams don't hold it up.
+ */
+@Component
+public class UserChangeFeed implements SmartLifecycle {
+    private static final int RECENT_CHANGES = 10_000;
+
+    private final UserChangeRepository userChangeRepository;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    // Contiguous by offset; replaced, never mutated, so readers need no lock.
+    private volatile List<UserChange> recent = List.of();
+    private volatile long latestOffset;
+    private volatile long oldestOffset;
+    private volatile boolean running;
+
+    public UserChangeFeed(UserChangeRepository userChangeRepository, AsyncTaskExecutor applicationTaskExecutor) {
+        this.userChangeRepository = userChangeRepository;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Subscription subscription : subscriptions) subscription.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long latestOffset() {
+        return latestOffset;
+    }
+
+    /** Returns up to {@code limit} changes after offset {@code since}, in offset order. */
+    public List<UserChange> read(long since, int limit) {
+        if (since >= latestOffset) return List.of();
+
+        List<UserChange> snapshot = recent;
+
+        if (!snapshot.isEmpty() && since >= snapshot.get(0).getOffset() - 1) {
+            int from = (int) (since + 1 - snapshot.get(0).getOffset());
+            return snapshot.subList(from, Math.min(snapshot.size(), from + limit));
+        }
+
+        if (since < oldestOffset - 1) {
+            throw new UserChangesExpiredException("As alterações a partir desse offset já foram descartadas. Sincronize novamente por GET /users.");
+        }
+
+        return userChangeRepository.findByOffsetGreaterThanOrderByOffsetAsc(since, Limit.of(limit));
+    }
+
+    /**
+     * Calls {@code listener} on the application task executor with every batch of changes after
+     * {@code since}, starting with those already published, until it returns {@code false} or the
+     * subscription is closed.
+     */
+    public Subscription subscribe(long since, int limit, Predicate<List<UserChange>> listener) {
+        Subscription subscription = new Subscription(since, limit, listener);
+        subscriptions.add(subscription);
+        subscription.signal();
+        return subscription;
+    }
+
+    synchronized void publish(List<UserChange> changes) {
+        if (changes.isEmpty()) return;
+
+        List<UserChange> snapshot = recent;
+        // A gap means the relay skipped ahead, e.g. after a restart; keep only what is contiguous.
+        if (!snapshot.isEmpty() && changes.get(0).getOffset() != snapshot.get(snapshot.size() - 1).getOffset() + 1) snapshot = List.of();
+
+        List<UserChange> next = new ArrayList<>(Math.min(RECENT_CHANGES, snapshot.size() + changes.size()));
+        int keep = Math.max(0, snapshot.size() + changes.size() - RECENT_CHANGES);
+
+        if (keep < snapshot.size()) next.addAll(snapshot.subList(keep, snapshot.size()));
+        next.addAll(changes.subList(Math.max(0, keep - snapshot.size()), changes.size()));
+
+        recent = List.copyOf(next);
+        latestOffset = changes.get(changes.size() - 1).getOffset();
+
+        for (Subscription subscription : subscriptions) subscription.signal();
+    }
+
+    synchronized void reset(long latestOffset, long oldestOffset) {
+        this.recent = List.of();
+        this.latestOffset = latestOffset;
+        this.oldestOffset = oldestOffset;
+    }
+
+    void retainFrom(long oldestOffset) {
+        this.oldestOffset = oldestOffset;
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final int limit;
+        private final Predicate<List<UserChange>> listener;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long cursor;
+        private volatile boolean closed;
+        private volatile Runnable onShutdown = () -> { };
+
+        private Subscription(long since, int limit, Predicate<List<UserChange>> listener) {
+            this.cursor = since;
+            this.limit = limit;
+            this.listener = listener;
+        }
+
+        /** Runs {@code action} if the subscription is ended by shutdown rather than closed by its owner. */
+        public Subscription onShutdown(Runnable action) {
+            this.onShutdown = action;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+
+        private void shutdown() {
+            close();
+            onShutdown.run();
+        }
+
+        private void signal() {
+            if (!closed && scheduled.compareAndSet(false, true)) applicationTaskExecutor.execute(this::drain);
+        }
+
+        private synchronized void drain() {
+            scheduled.set(false);
+
+            try {
+                List<UserChange> changes;
+
+                while (!closed && !(changes = read(cursor, limit)).isEmpty()) {
+                    cursor = changes.get(changes.size() - 1).getOffset();
+                    if (!listener.test(changes)) close();
+                }
+            } catch (RuntimeException ex) {
+                close();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.api.changes;
+
+import com.api.datasource.ReplicaRoutingDataSource;
+import com.api.entity.User;
+import com.api.entity.UserChange;
+import com.api.entity.UserChangeType;
+import com.api.repository.UserChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records user mutations in the same transaction as the mutation itself, so a change is published if and
+ * only if it was committed. {@link UserChangeRelay} picks the rows up after commit.
+ * <p>
+ * With read replicas, reads of the changed users also stay on the primary until the replicas have replayed
+ * the change; reads of every other user keep going to the replicas.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangeOutbox {
+    private final UserChangeRepository userChangeRepository;
+    private final UserChangeRelay userChangeRelay;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Collection<User> users) {
+        append(UserChangeType.CREATED, users);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updated(Collection<User> users) {
+        append(UserChangeType.UPDATED, users);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(UUID id, Long version) {
+        append(UserChangeType.DELETED, List.of(User.builder().id(id).version(version).build()));
+    }
+
+    private void append(UserChangeType type, Collection<User> users) {
+        if (users.isEmpty()) return;
+
+        Instant now = Instant.now();
+        List<UserChange> changes = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            changes.add(UserChange.builder()
+                    .type(type)
+                    .userId(user.getId())
+                    .name(user.getName())
+                    .email(user.getEmail())
+                    .version(user.getVersion())
+                    .changedAt(now)
+                    .build());
+        }
+
+        userChangeRepository.saveAll(changes);
+
+        // Pinned before the commit as well, so no read between the commit and afterCommit reaches a replica.
+        ReplicaRoutingDataSource replicas = replicaRoutingDataSource.getIfAvailable();
+        if (replicas != null) users.forEach(user -> replicas.pinToPrimary(user.getId()));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Again from the commit, which is when the replicas start replaying it.
+                if (replicas != null) users.forEach(user -> replicas.pinToPrimary(user.getId()));
+                userChangeRelay.wakeUp();
+            }
+        });
+    }
+}
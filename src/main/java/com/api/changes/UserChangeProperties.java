@@ -0,0 +1,15 @@
+package com.api.changes;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "api.users.changes")
+public class UserChangeProperties {
+    private int batchSize = 500;
+    private Duration pollInterval = Duration.ofMillis(200);
+    private Duration longPollTimeout = Duration.ofSeconds(30);
+    private Duration retention = Duration.ofDays(7);
+}
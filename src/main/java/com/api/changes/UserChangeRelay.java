@@ -0,0 +1,120 @@
+package com.api.changes;
+
+import com.api.entity.UserChange;
+import com.api.repository.UserChangeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves committed outbox rows into the feed. Each round assigns offsets to a batch of unpublished rows,
+ * then loads every row past the feed's latest offset, which also picks up rows relayed by other nodes.
+ * Offsets are unique in the table, so two nodes relaying at once cannot both commit the same offset.
+ */
+@Component
+public class UserChangeRelay {
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+
+    private final UserChangeProperties properties;
+    private final UserChangeRepository userChangeRepository;
+    private final UserChangeFeed userChangeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore wakeUps = new Semaphore(0);
+
+    private volatile boolean running;
+    private Thread relay;
+    private Instant nextPrune = Instant.MIN;
+
+    public UserChangeRelay(UserChangeProperties properties, UserChangeRepository userChangeRepository, UserChangeFeed userChangeFeed,
+                           TransactionTemplate transactionTemplate) {
+        this.properties = properties;
+        this.userChangeRepository = userChangeRepository;
+        this.userChangeFeed = userChangeFeed;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        userChangeFeed.reset(userChangeRepository.findMaxOffset(), userChangeRepository.findMinOffset());
+
+        running = true;
+        relay = new Thread(this::run, "user-change-relay");
+        relay.setDaemon(true);
+        relay.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (relay == null) return;
+
+        running = false;
+        wakeUp();
+        relay.join();
+    }
+
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) wakeUps.release();
+    }
+
+    private void run() {
+        long pollInterval = properties.getPollInterval().toNanos();
+
+        while (running) {
+            try {
+                wakeUps.tryAcquire(pollInterval, TimeUnit.NANOSECONDS);
+                wakeUps.drainPermits();
+
+                int relayed;
+
+                do {
+                    relayed = relayBatch();
+                } while (running && relayed == properties.getBatchSize());
+
+                prune();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // Another node committed the same offsets first, or the database is unavailable; the next round retries.
+            }
+        }
+    }
+
+    int relayBatch() {
+        Integer assigned = transactionTemplate.execute(status -> {
+            List<UserChange> changes = userChangeRepository.findByOffsetIsNullOrderByIdAsc(Limit.of(properties.getBatchSize()));
+            if (changes.isEmpty()) return 0;
+
+            long offset = userChangeRepository.findMaxOffset();
+            for (UserChange change : changes) change.setOffset(++offset);
+
+            return changes.size();
+        });
+
+        List<UserChange> published;
+
+        do {
+            published = userChangeRepository.findByOffsetGreaterThanOrderByOffsetAsc(userChangeFeed.latestOffset(), Limit.of(properties.getBatchSize()));
+            userChangeFeed.publish(published);
+        } while (published.size() == properties.getBatchSize());
+
+        return assigned != null ? assigned : 0;
+    }
+
+    private void prune() {
+        Instant now = Instant.now();
+        if (now.isBefore(nextPrune)) return;
+
+        nextPrune = now.plus(PRUNE_INTERVAL);
+        userChangeRepository.deletePublishedBefore(now.minus(properties.getRetention()), userChangeFeed.latestOffset());
+        userChangeFeed.retainFrom(userChangeRepository.findMinOffset());
+    }
+}
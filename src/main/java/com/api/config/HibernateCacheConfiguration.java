@@ -0,0 +1,52 @@
+package com.api.config;
+
+import com.api.cache.HibernateCacheProperties;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Backs Hibernate's second-level and query caches with Caffeine through JCache. Regions are created here
+ * from {@code api.cache.hibernate.regions}, so they are sized in application.properties like the other
+ * caches, and Hibernate is told to fail on any region that isn't configured.
+ */
+@Configuration
+public class HibernateCacheConfiguration {
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // The provider hands out one manager per URI; a unique one keeps each application context's regions apart.
+        CacheManager cacheManager = provider.getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (Map.Entry<String, HibernateCacheProperties.Region> region : properties.getRegions().entrySet()) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getValue().getMaximumSize()));
+            if (region.getValue().getTtl() != null) configuration.setExpireAfterWrite(OptionalLong.of(region.getValue().getTtl().toNanos()));
+            // Hibernate never mutates what it caches, so copying every entry in and out would be wasted work.
+            configuration.setStoreByValue(false);
+
+            cacheManager.createCache(region.getKey(), configuration);
+        }
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
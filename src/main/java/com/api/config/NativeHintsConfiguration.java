@@ -0,0 +1,46 @@
+package com.api.config;
+
+import com.api.dto.user.UserBatchDeleteRequestDto;
+import com.api.dto.user.UserBatchRequestDto;
+import com.api.dto.user.UserBatchResultDto;
+import com.api.dto.user.UserBatchUpdateItemDto;
+import com.api.dto.user.UserBatchUpdateRequestDto;
+import com.api.dto.user.UserChangeDto;
+import com.api.dto.user.UserChangePageDto;
+import com.api.dto.user.UserPageResponseDto;
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.dto.user.UserUpdateRequestDto;
+import com.api.dto.user.UserWriteStatusDto;
+import com.api.entity.id.AssignableUuidGenerator;
+import com.api.exception.ExceptionResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+@Configuration
+@ImportRuntimeHints(NativeHintsConfiguration.UserRuntimeHints.class)
+@RegisterReflectionForBinding({
+        UserRequestDto.class, UserUpdateRequestDto.class, UserResponseDto.class, UserPageResponseDto.class,
+        UserBatchRequestDto.class, UserBatchUpdateRequestDto.class, UserBatchUpdateItemDto.class,
+        UserBatchDeleteRequestDto.class, UserBatchResultDto.class, UserWriteStatusDto.class, UserChangeDto.class,
+        UserChangePageDto.class, ExceptionResponse.class
+})
+public class NativeHintsConfiguration {
+    static class UserRuntimeHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Hibernate instantiates @IdGeneratorType implementations through their (annotation) constructor.
+            hints.reflection().registerType(AssignableUuidGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // The write-behind journal is read and written with the ObjectMapper outside any controller.
+            Class<?> journalEntry = ClassUtils.resolveClassName("com.api.queue.UserWriteJournal$Entry", classLoader);
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), journalEntry);
+        }
+    }
+}
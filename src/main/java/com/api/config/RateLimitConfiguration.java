@@ -0,0 +1,24 @@
+package com.api.config;
+
+import com.api.limit.UserRateLimitInterceptor;
+import com.api.limit.UserRateLimitProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RateLimitConfiguration implements WebMvcConfigurer {
+    private final UserRateLimitProperties properties;
+
+    // Checked here rather than with @ConditionalOnProperty, which an AOT build would settle at build time.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!properties.isEnabled()) return;
+
+        registry.addInterceptor(new UserRateLimitInterceptor(properties)).addPathPatterns("/users", "/users/**");
+    }
+}
@@ -1,10 +1,20 @@
 package com.api.controller;
 
+import com.api.dto.user.UserBatchDeleteRequestDto;
+import com.api.dto.user.UserBatchRequestDto;
+import com.api.dto.user.UserBatchResultDto;
+import com.api.dto.user.UserBatchUpdateRequestDto;
+import com.api.dto.user.UserChangeDto;
+import com.api.dto.user.UserChangePageDto;
+import com.api.dto.user.UserLoginRequestDto;
+import com.api.dto.user.UserPageResponseDto;
 import com.api.dto.user.UserRequestDto;
 import com.api.dto.user.UserResponseDto;
 import com.api.dto.user.UserUpdateRequestDto;
+import com.api.dto.user.UserWriteStatusDto;
 import com.api.exception.ExceptionResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,33 +22,183 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RequestMapping("/users")
 @Tag(name = "User")
 public interface UserController {
-    @Operation(summary = "Consulta todos os usuários")
+    @Operation(summary = "Consulta os usuários de forma paginada")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Usuários encontrados com sucesso",
                     content = @Content(
                             mediaType = "application/json",
-                            array = @ArraySchema(schema = @Schema(implementation = UserResponseDto.class))
+                            schema = @Schema(implementation = UserPageResponseDto.class)
                     )
             ),
             @ApiResponse(
                     responseCode = "204",
                     description = "Nenhum usuário encontrado",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nenhum usuário foi alterado desde o ETag informado em If-None-Match",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Cursor ou tamanho de página inválido",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
             )
     })
     @GetMapping
-    ResponseEntity<List<UserResponseDto>> getUsers();
+    ResponseEntity<UserPageResponseDto> getUsers(
+            @Parameter(description = "Cursor opaco retornado em nextCursor pela página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de usuários por página (1 a 100)")
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request
+    );
+
+    @Operation(summary = "Pesquisa usuários por nome ou e-mail")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Usuários encontrados com sucesso, em ordem de id",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UserPageResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Nenhum usuário encontrado",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Pesquisa, cursor ou tamanho de página inválido",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/search")
+    ResponseEntity<UserPageResponseDto> searchUsers(
+            @Parameter(description = "Termos pesquisados; cada palavra deve iniciar uma palavra do nome ou do e-mail, tolerando pequenos erros de digitação")
+            @RequestParam String q,
+            @Parameter(description = "Cursor opaco retornado em nextCursor pela página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de usuários por página (1 a 100)")
+            @RequestParam(defaultValue = "20") int size
+    );
+
+    @Operation(summary = "Transmite todos os usuários em NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Usuários transmitidos com sucesso, um objeto por linha",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = UserResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamUsersAsNdjson(WebRequest request);
+
+    @Operation(summary = "Transmite todos os usuários em um array JSON")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Usuários transmitidos com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = UserResponseDto.class))
+                    )
+            )
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamUsersAsJsonArray(WebRequest request);
+
+    @Operation(summary = "Consulta as alterações de usuários após um offset, aguardando novas quando não houver")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Alterações em ordem de offset; vazio se nada mudou até o fim da espera",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UserChangePageDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Tamanho de página inválido",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "410",
+                    description = "Alterações desse offset já descartadas; sincronize novamente por GET /users",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            )
+    })
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    DeferredResult<ResponseEntity<UserChangePageDto>> getUserChanges(
+            @Parameter(description = "Offset da última alteração recebida; sem ele, só as alterações seguintes são enviadas")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Quantidade máxima de alterações por resposta (1 a 100)")
+            @RequestParam(defaultValue = "100") int size
+    );
+
+    @Operation(summary = "Transmite as alterações de usuários após um offset em Server-Sent Events")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Um evento por alteração, com o offset como id e o tipo como nome do evento",
+                    content = @Content(
+                            mediaType = "text/event-stream",
+                            schema = @Schema(implementation = UserChangeDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "410",
+                    description = "Alterações desse offset já descartadas; sincronize novamente por GET /users",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            )
+    })
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamUserChanges(
+            @Parameter(description = "Offset da última alteração recebida; sem ele, só as alterações seguintes são enviadas")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Enviado pelo navegador ao reconectar; usado quando since não é informado")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    );
 
     @Operation(summary = "Consulta um usuário por id")
     @ApiResponses(value = {
@@ -50,6 +210,11 @@ public interface UserController {
                             schema = @Schema(implementation = UserResponseDto.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Usuário não alterado desde o ETag informado em If-None-Match",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Usuário não encontrado",
@@ -60,7 +225,11 @@ public interface UserController {
             )
     })
     @GetMapping("/{id}")
-    ResponseEntity<UserResponseDto> getUserById(@PathVariable UUID id);
+    ResponseEntity<UserResponseDto> getUserById(
+            @PathVariable UUID id,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    );
 
     @Operation(summary = "Cadastra um novo usuário")
     @ApiResponses(value = {
@@ -72,6 +241,14 @@ public interface UserController {
                             schema = @Schema(implementation = UserResponseDto.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Cadastro aceito e enfileirado; acompanhe pelo endereço em Location",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UserResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Corpo da requisição inválido",
@@ -87,10 +264,90 @@ public interface UserController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = ExceptionResponse.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Fila de cadastro cheia",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Fila de criptografia de senhas cheia",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
             )
     })
     @PostMapping
-    ResponseEntity<UserResponseDto> saveUser(@Valid @RequestBody UserRequestDto dto);
+    CompletableFuture<ResponseEntity<UserResponseDto>> saveUser(
+            @Valid @RequestBody UserRequestDto dto,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    );
+
+    @Operation(summary = "Autentica um usuário por e-mail e senha")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Usuário autenticado com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UserResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Dados inválidos",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "E-mail ou senha inválidos",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Fila de criptografia de senhas cheia",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            )
+    })
+    @PostMapping("/login")
+    CompletableFuture<ResponseEntity<UserResponseDto>> login(@Valid @RequestBody UserLoginRequestDto dto);
+
+    @Operation(summary = "Consulta a situação de um cadastro enfileirado")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Situação do cadastro: PENDING, PERSISTED ou FAILED",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UserWriteStatusDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Usuário não encontrado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/{id}/status")
+    ResponseEntity<UserWriteStatusDto> getUserWriteStatus(@PathVariable UUID id);
 
     @Operation(summary = "Atualiza os dados de um usuário")
     @ApiResponses(value = {
@@ -125,10 +382,25 @@ public interface UserController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = ExceptionResponse.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Versão do usuário diferente da informada em If-Match",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
             )
     })
     @PatchMapping("/{id}")
-    ResponseEntity<UserResponseDto> updateUser(@PathVariable UUID id, @RequestBody UserUpdateRequestDto dto);
+    ResponseEntity<UserResponseDto> updateUser(
+            @PathVariable UUID id,
+            @RequestBody UserUpdateRequestDto dto,
+            @Parameter(description = "ETag da versão esperada do usuário")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    );
 
     @Operation(summary = "Exclui um usuário")
     @ApiResponses(value = {
@@ -144,8 +416,86 @@ public interface UserController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = ExceptionResponse.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Versão do usuário diferente da informada em If-Match",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
             )
     })
     @DeleteMapping("/{id}")
-    ResponseEntity<Void> deleteUser(@PathVariable UUID id);
+    ResponseEntity<Void> deleteUser(
+            @PathVariable UUID id,
+            @Parameter(description = "ETag da versão esperada do usuário")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    );
+
+    @Operation(summary = "Cadastra usuários em lote")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote processado; o status de cada usuário é informado individualmente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = UserBatchResultDto.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Corpo da requisição inválido",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            )
+    })
+    @PostMapping("/batch")
+    CompletableFuture<ResponseEntity<List<UserBatchResultDto>>> saveUsers(@Valid @RequestBody UserBatchRequestDto dto);
+
+    @Operation(summary = "Atualiza os dados de usuários em lote")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote processado; o status de cada usuário é informado individualmente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = UserBatchResultDto.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Corpo da requisição inválido",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            )
+    })
+    @PatchMapping("/batch")
+    ResponseEntity<List<UserBatchResultDto>> updateUsers(@Valid @RequestBody UserBatchUpdateRequestDto dto);
+
+    @Operation(summary = "Exclui usuários em lote")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote processado; o status de cada usuário é informado individualmente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = UserBatchResultDto.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Corpo da requisição inválido",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExceptionResponse.class)
+                    )
+            )
+    })
+    @DeleteMapping("/batch")
+    ResponseEntity<List<UserBatchResultDto>> deleteUsers(@Valid @RequestBody UserBatchDeleteRequestDto dto);
 }
\ No newline at end of file
@@ -1,62 +1,381 @@
 package com.api.controller.impl;
 
+import com.api.cache.UserChangeCounter;
+import com.api.changes.UserChangeFeed;
+import com.api.changes.UserChangeProperties;
 import com.api.controller.UserController;
+import com.api.dto.user.UserBatchDeleteRequestDto;
+import com.api.dto.user.UserBatchRequestDto;
+import com.api.dto.user.UserBatchResultDto;
+import com.api.dto.user.UserBatchUpdateRequestDto;
+import com.api.dto.user.UserChangeDto;
+import com.api.dto.user.UserChangePageDto;
+import com.api.dto.user.UserCursor;
+import com.api.dto.user.UserETag;
+import com.api.dto.user.UserJsonWriter;
+import com.api.dto.user.UserLoginRequestDto;
 import com.api.dto.user.UserMapper;
+import com.api.dto.user.UserPageResponseDto;
 import com.api.dto.user.UserRequestDto;
 import com.api.dto.user.UserResponseDto;
 import com.api.dto.user.UserUpdateRequestDto;
+import com.api.dto.user.UserWriteStatusDto;
 import com.api.entity.User;
+import com.api.entity.UserChange;
+import com.api.entity.UserSummary;
+import com.api.exception.user.UserEmailAlreadyExistsException;
+import com.api.exception.user.UserFieldsNullException;
+import com.api.exception.user.UserNotFoundException;
+import com.api.exception.user.UserPageInvalidException;
+import com.api.exception.user.UserPreconditionFailedException;
+import com.api.exception.user.UserSearchInvalidException;
+import com.api.password.UserPasswordHasher;
+import com.api.queue.UserWriteBehindProperties;
+import com.api.service.UserBatchResult;
 import com.api.service.UserService;
+import com.api.service.UserWriteStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserControllerImpl implements UserController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 100;
+    // Long enough to write the whole table; the other async requests keep the container's default.
+    private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(10);
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final UserChangeCounter userChangeCounter;
+    private final UserWriteBehindProperties userWriteBehindProperties;
+    private final UserPasswordHasher userPasswordHasher;
+    // Hashing completes on the hasher's CPU-sized pool; the database work after it runs here instead.
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final UserChangeFeed userChangeFeed;
+    private final UserChangeProperties userChangeProperties;
 
     @Override
-    public ResponseEntity<List<UserResponseDto>> getUsers() {
-        List<User> users = userService.getUsers();
+    public ResponseEntity<UserPageResponseDto> getUsers(String cursor, int size, WebRequest request) {
+        validatePageSize(size);
+
+        String eTag = UserETag.weak(userChangeCounter.current());
+
+        if (request.checkNotModified(eTag)) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+
+        List<UserSummary> users = userService.getUsers(UserCursor.decode(cursor), size + 1);
 
         if (users.isEmpty()) return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
 
-        List<UserResponseDto> userResponseDto = users.stream()
-                .map(UserMapper::toUserResponseDto)
-                .toList();
+        return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(toUserPageResponseDto(users, size));
+    }
+
+    @Override
+    public ResponseEntity<UserPageResponseDto> searchUsers(String q, String cursor, int size) {
+        validatePageSize(size);
+
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            throw new UserSearchInvalidException("A pesquisa deve ter entre 1 e " + MAX_QUERY_LENGTH + " caracteres.");
+        }
+
+        List<UserSummary> users = userService.searchUsers(q, UserCursor.decode(cursor), size + 1);
+
+        if (users.isEmpty()) return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+
+        return ResponseEntity.status(HttpStatus.OK).body(toUserPageResponseDto(users, size));
+    }
 
-        return ResponseEntity.status(HttpStatus.OK).body(userResponseDto);
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new UserPageInvalidException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    private UserPageResponseDto toUserPageResponseDto(List<UserSummary> users, int size) {
+        boolean hasNext = users.size() > size;
+        List<UserSummary> page = hasNext ? users.subList(0, size) : users;
+
+        List<UserResponseDto> userResponseDto = new ArrayList<>(page.size());
+        for (UserSummary user : page) userResponseDto.add(UserMapper.toUserResponseDto(user));
+
+        String nextCursor = hasNext ? UserCursor.encode(page.get(page.size() - 1).getId()) : null;
+
+        return new UserPageResponseDto(userResponseDto, nextCursor);
     }
 
     @Override
-    public ResponseEntity<UserResponseDto> getUserById(UUID id) {
-        User user = userService.getUserById(id);
-        UserResponseDto userResponseDto = UserMapper.toUserResponseDto(user);
-        return ResponseEntity.status(HttpStatus.OK).body(userResponseDto);
+    public ResponseEntity<StreamingResponseBody> streamUsersAsNdjson(WebRequest request) {
+        extendAsyncTimeout(request);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> writeUsers(out, false));
     }
 
     @Override
-    public ResponseEntity<UserResponseDto> saveUser(UserRequestDto dto) {
-        User user = userService.saveUser(UserMapper.toUser(dto));
+    public ResponseEntity<StreamingResponseBody> streamUsersAsJsonArray(WebRequest request) {
+        extendAsyncTimeout(request);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> writeUsers(out, true));
+    }
+
+    // The body is written on an async task, which would otherwise time out with every other async request.
+    private void extendAsyncTimeout(WebRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(STREAM_TIMEOUT.toMillis());
+    }
+
+    private void writeUsers(OutputStream out, boolean asArray) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            if (asArray) generator.writeStartArray();
+
+            try {
+                userService.streamUsers(user -> {
+                    try {
+                        UserJsonWriter.writeUserResponseDto(user, generator);
+                        if (!asArray) generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            if (asArray) generator.writeEndArray();
+        }
+    }
+
+    @Override
+    public DeferredResult<ResponseEntity<UserChangePageDto>> getUserChanges(Long since, int size) {
+        validatePageSize(size);
+
+        long offset = startOffset(since);
+
+        Supplier<ResponseEntity<UserChangePageDto>> nothingChanged = () -> ResponseEntity.status(HttpStatus.OK).body(new UserChangePageDto(List.of(), offset));
+        DeferredResult<ResponseEntity<UserChangePageDto>> result = new DeferredResult<>(userChangeProperties.getLongPollTimeout().toMillis(), nothingChanged);
+        List<UserChange> changes = userChangeFeed.read(offset, size);
+
+        if (!changes.isEmpty()) {
+            result.setResult(ResponseEntity.status(HttpStatus.OK).body(toUserChangePageDto(changes)));
+            return result;
+        }
+
+        UserChangeFeed.Subscription subscription = userChangeFeed.subscribe(offset, size, published -> {
+            result.setResult(ResponseEntity.status(HttpStatus.OK).body(toUserChangePageDto(published)));
+            return false;
+        }).onShutdown(() -> result.setResult(nothingChanged.get()));
+        result.onCompletion(subscription::close);
+        return result;
+    }
+
+    /**
+     * A new subscriber starts at the feed's end, since what came before is what GET /users already shows, and
+     * starting at 0 would fail with 410 once old changes are pruned. An offset past the end is clamped to it:
+     * another node may have relayed a round this one hasn't loaded yet, and the subscription would otherwise
+     * wait for that offset instead of returning the changes in between.
+     */
+    private long startOffset(Long since) {
+        long latestOffset = userChangeFeed.latestOffset();
+        return since == null ? latestOffset : Math.min(since, latestOffset);
+    }
+
+    @Override
+    public SseEmitter streamUserChanges(Long since, Long lastEventId) {
+        long offset = startOffset(since != null ? since : lastEventId);
+        // Fails with 410 before the stream starts if the offset was already pruned.
+        userChangeFeed.read(offset, 1);
+
+        // Browsers reconnect with Last-Event-ID once it times out.
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        UserChangeFeed.Subscription subscription = userChangeFeed.subscribe(offset, MAX_PAGE_SIZE, changes -> {
+            try {
+                for (UserChange change : changes) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getOffset()))
+                            .name(change.getType().name())
+                            .data(UserMapper.toUserChangeDto(change), MediaType.APPLICATION_JSON));
+                }
+
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                return false;
+            }
+        }).onShutdown(emitter::complete);
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(ex -> subscription.close());
+        return emitter;
+    }
+
+    private UserChangePageDto toUserChangePageDto(List<UserChange> changes) {
+        List<UserChangeDto> userChangeDto = new ArrayList<>(changes.size());
+        for (UserChange change : changes) userChangeDto.add(UserMapper.toUserChangeDto(change));
+
+        return new UserChangePageDto(userChangeDto, changes.get(changes.size() - 1).getOffset());
+    }
+
+    @Override
+    public ResponseEntity<UserResponseDto> getUserById(UUID id, String accept) {
+        UserSummary user = userService.getUserById(id);
         UserResponseDto userResponseDto = UserMapper.toUserResponseDto(user);
-        return ResponseEntity.status(HttpStatus.CREATED).body(userResponseDto);
+        return ResponseEntity.status(HttpStatus.OK).eTag(UserETag.of(user.getVersion(), accept)).body(userResponseDto);
     }
 
     @Override
-    public ResponseEntity<UserResponseDto> updateUser(UUID id, UserUpdateRequestDto dto) {
-        User user = userService.updateUser(id, UserMapper.toUser(dto));
+    public CompletableFuture<ResponseEntity<UserResponseDto>> saveUser(UserRequestDto dto, String accept) {
+        // Checked before hashing so a duplicate sign-up doesn't cost a BCrypt round; saveUser still enforces it.
+        if (userService.existsUserByEmail(dto.getEmail())) throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
+
+        return userPasswordHasher.hash(dto.getPassword()).thenApplyAsync(passwordHash -> {
+            if (userWriteBehindProperties.isEnabled()) {
+                User user = userService.enqueueUser(UserMapper.toUser(dto, passwordHash));
+                UserResponseDto userResponseDto = UserMapper.toUserResponseDto(user);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).location(URI.create("/users/" + user.getId() + "/status")).body(userResponseDto);
+            }
+
+            User user = userService.saveUser(UserMapper.toUser(dto, passwordHash));
+            UserResponseDto userResponseDto = UserMapper.toUserResponseDto(user);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(UserETag.of(user.getVersion(), accept)).body(userResponseDto);
+        }, applicationTaskExecutor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<UserResponseDto>> login(UserLoginRequestDto dto) {
+        return userService.authenticate(dto.getEmail(), dto.getPassword())
+                .thenApply(user -> ResponseEntity.status(HttpStatus.OK).body(UserMapper.toUserResponseDto(user)));
+    }
+
+    @Override
+    public ResponseEntity<UserWriteStatusDto> getUserWriteStatus(UUID id) {
+        UserWriteStatus status = userService.getUserWriteStatus(id);
+        UserWriteStatusDto userWriteStatusDto = new UserWriteStatusDto(id, status.getState().name(), status.getDetail());
+        return ResponseEntity.status(HttpStatus.OK).body(userWriteStatusDto);
+    }
+
+    @Override
+    public ResponseEntity<UserResponseDto> updateUser(UUID id, UserUpdateRequestDto dto, String ifMatch, String accept) {
+        User updatedUser = UserMapper.toUser(dto);
+        updatedUser.setVersion(expectedVersion(id, ifMatch));
+
+        User user = userService.updateUser(id, updatedUser);
         UserResponseDto userResponseDto = UserMapper.toUserResponseDto(user);
-        return ResponseEntity.status(HttpStatus.OK).body(userResponseDto);
+        return ResponseEntity.status(HttpStatus.OK).eTag(UserETag.of(user.getVersion(), accept)).body(userResponseDto);
     }
 
     @Override
-    public ResponseEntity<Void> deleteUser(UUID id) {
-        userService.deleteUser(id);
+    public ResponseEntity<Void> deleteUser(UUID id, String ifMatch) {
+        userService.deleteUser(id, expectedVersion(id, ifMatch));
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
+
+    // The conditional UPDATE or DELETE checks a single version; when If-Match lists several, the current one
+    // is picked if it is among them, and the statement still rejects a write that got in since.
+    private Long expectedVersion(UUID id, String ifMatch) {
+        List<Long> versions = UserETag.parseIfMatch(ifMatch);
+        if (versions == null) return null;
+        if (versions.size() == 1) return versions.get(0);
+
+        Long current = userService.getUserById(id).getVersion();
+        if (!versions.contains(current)) throw new UserPreconditionFailedException("A versão do usuário não corresponde ao cabeçalho If-Match.");
+        return current;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<List<UserBatchResultDto>>> saveUsers(UserBatchRequestDto dto) {
+        List<UserRequestDto> requests = dto.getUsers();
+        List<CompletableFuture<String>> passwordHashes = new ArrayList<>(requests.size());
+        Set<String> emails = new HashSet<>();
+
+        // As in saveUser, e-mails already taken, here or earlier in the batch, are rejected before they cost a
+        // BCrypt round; saveUsers still enforces uniqueness for the rest.
+        for (UserRequestDto request : requests) {
+            boolean taken = !emails.add(request.getEmail()) || userService.existsUserByEmail(request.getEmail());
+            passwordHashes.add(taken ? null : userPasswordHasher.hash(request.getPassword()));
+        }
+
+        CompletableFuture<?>[] pending = passwordHashes.stream().filter(Objects::nonNull).toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(pending).thenApplyAsync(ignored -> {
+            List<User> users = new ArrayList<>(pending.length);
+            for (int i = 0; i < requests.size(); i++) {
+                if (passwordHashes.get(i) != null) users.add(UserMapper.toUser(requests.get(i), passwordHashes.get(i).join()));
+            }
+
+            Iterator<UserBatchResult> saved = userService.saveUsers(users).iterator();
+            List<UserBatchResult> results = new ArrayList<>(requests.size());
+            for (CompletableFuture<String> passwordHash : passwordHashes) {
+                results.add(passwordHash != null ? saved.next() : UserBatchResult.failure(new UserEmailAlreadyExistsException("Esse e-mail já existe.")));
+            }
+
+            return ResponseEntity.status(HttpStatus.OK).body(toUserBatchResultDto(results, HttpStatus.CREATED));
+        }, applicationTaskExecutor);
+    }
+
+    @Override
+    public ResponseEntity<List<UserBatchResultDto>> updateUsers(UserBatchUpdateRequestDto dto) {
+        List<User> users = dto.getUsers().stream()
+                .map(UserMapper::toUser)
+                .toList();
+
+        return ResponseEntity.status(HttpStatus.OK).body(toUserBatchResultDto(userService.updateUsers(users), HttpStatus.OK));
+    }
+
+    @Override
+    public ResponseEntity<List<UserBatchResultDto>> deleteUsers(UserBatchDeleteRequestDto dto) {
+        return ResponseEntity.status(HttpStatus.OK).body(toUserBatchResultDto(userService.deleteUsers(dto.getIds()), HttpStatus.NO_CONTENT));
+    }
+
+    private List<UserBatchResultDto> toUserBatchResultDto(List<UserBatchResult> results, HttpStatus successStatus) {
+        List<UserBatchResultDto> userBatchResultDto = new ArrayList<>(results.size());
+
+        for (int i = 0; i < results.size(); i++) {
+            UserBatchResult result = results.get(i);
+
+            if (result.isSuccess()) {
+                UserResponseDto user = successStatus == HttpStatus.NO_CONTENT ? null : UserMapper.toUserResponseDto(result.getUser());
+                userBatchResultDto.add(new UserBatchResultDto(i, successStatus.value(), user, null));
+            } else {
+                userBatchResultDto.add(new UserBatchResultDto(i, statusOf(result.getError()).value(), null, result.getError().getMessage()));
+            }
+        }
+
+        return userBatchResultDto;
+    }
+
+    private HttpStatus statusOf(RuntimeException error) {
+        if (error instanceof UserNotFoundException) return HttpStatus.NOT_FOUND;
+        if (error instanceof UserEmailAlreadyExistsException) return HttpStatus.CONFLICT;
+        if (error instanceof UserFieldsNullException) return HttpStatus.BAD_REQUEST;
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
 }
\ No newline at end of file
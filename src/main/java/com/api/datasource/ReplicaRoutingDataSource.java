@@ -0,0 +1,207 @@
+package com.api.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections everywhere else.
+ * Replicas are picked round-robin among those whose last lag check was within {@code maxLag}; when none
+ * is, or the picked one refuses the connection, the read falls back to the primary.
+ * <p>
+ * Read-your-writes is kept per key rather than for the whole node: after a row is written, reads of it made
+ * through {@link #read(Object, Supplier)} stay on the primary for {@code maxLag} plus {@code checkInterval},
+ * the time by which a replica that passes the lag check must have replayed it. Otherwise a read right after
+ * the write could put the old row back into the user cache, where it would outlive the lag. Reads of other
+ * rows keep going to the replicas.
+ * <p>
+ * The read-only flag is only known once the transaction has started, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final long primaryWindow;
+    private final Map<Object, Long> written = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> primaryRead = ThreadLocal.withInitial(() -> false);
+    private volatile ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, UserReplicaProperties properties) {
+        this.primary = primary;
+        this.maxLag = properties.getMaxLag();
+        this.checkInterval = properties.getCheckInterval();
+        this.lagQuery = properties.getLagQuery();
+        this.primaryWindow = maxLag.plus(checkInterval).toNanos();
+
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+    }
+
+    public synchronized void start() {
+        if (lagChecker != null || replicas.isEmpty()) return;
+
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-replica-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        if (lagChecker != null) lagChecker.shutdownNow();
+
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) closeable.close();
+        }
+
+    }
+
+    /** Keeps reads of {@code key} on the primary until the replicas must have replayed what has committed so far. */
+    public void pinToPrimary(Object key) {
+        if (!replicas.isEmpty()) written.put(key, System.nanoTime() + primaryWindow);
+    }
+
+    /** Runs {@code action} once the replicas must have replayed what has committed so far. */
+    public void afterReplicasCaughtUp(Runnable action) {
+        ScheduledExecutorService scheduler = lagChecker;
+        if (scheduler != null) scheduler.schedule(action, primaryWindow, TimeUnit.NANOSECONDS);
+    }
+
+    /** Runs {@code read} against the primary if {@code key} was pinned to it and the replicas may not have caught up yet. */
+    public <T> T read(Object key, Supplier<T> read) {
+        Long until = written.get(key);
+        if (until == null || System.nanoTime() - until >= 0 || primaryRead.get()) return read.get();
+
+        primaryRead.set(true);
+
+        try {
+            return read.get();
+        } finally {
+            primaryRead.set(false);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !primaryRead.get()) {
+            Replica replica = nextReplica();
+
+            if (replica != null) {
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replica.reads.increment();
+                    return connection;
+                } catch (SQLException ex) {
+                    replica.markDown();
+                }
+            }
+        }
+
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("users.replica.lag", replica, Replica::lagSeconds)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("users.replica.reads", replica, r -> r.reads.sum())
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+    }
+
+    void checkReplicas() {
+        long now = System.nanoTime();
+        written.values().removeIf(until -> now - until >= 0);
+
+        for (Replica replica : replicas) {
+            try {
+                replica.lag = measureLag(replica.dataSource);
+            } catch (SQLException | RuntimeException ex) {
+                replica.markDown();
+            }
+        }
+    }
+
+    private Duration measureLag(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (lagQuery == null) return connection.isValid(1) ? Duration.ZERO : null;
+
+            try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) return null;
+                return Duration.ofNanos((long) (resultSet.getDouble(1) * 1_000_000_000));
+            }
+        }
+    }
+
+    private Replica nextReplica() {
+        int start = next.getAndIncrement();
+
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.isUsable(maxLag)) return replica;
+        }
+
+        return null;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final LongAdder reads = new LongAdder();
+        // Null until the first check succeeds, so nothing reads from a replica whose lag is unknown.
+        private volatile Duration lag;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean isUsable(Duration maxLag) {
+            Duration current = lag;
+            return current != null && current.compareTo(maxLag) <= 0;
+        }
+
+        void markDown() {
+            lag = null;
+        }
+
+        double lagSeconds() {
+            Duration current = lag;
+            return current != null ? current.toNanos() / 1e9 : Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.api.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "api.users.replicas")
+public class UserReplicaProperties {
+    private boolean enabled = false;
+    private Duration maxLag = Duration.ofSeconds(1);
+    private Duration checkInterval = Duration.ofSeconds(1);
+    // Returns the replica's lag in seconds, e.g. "select coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)"
+    // on PostgreSQL. When unset, a replica that accepts connections is assumed to be up to date.
+    private String lagQuery;
+    private Map<String, Node> nodes = new LinkedHashMap<>();
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
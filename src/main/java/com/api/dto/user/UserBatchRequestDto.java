@@ -0,0 +1,21 @@
+package com.api.dto.user;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserBatchRequestDto {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid UserRequestDto> users;
+}
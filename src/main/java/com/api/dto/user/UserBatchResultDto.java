@@ -0,0 +1,19 @@
+package com.api.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserBatchResultDto {
+    private Integer index;
+    private Integer status;
+    private UserResponseDto user;
+    private String detail;
+}
@@ -0,0 +1,20 @@
+package com.api.dto.user;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserBatchUpdateItemDto {
+    @NotNull
+    private UUID id;
+    private String name;
+    private String email;
+}
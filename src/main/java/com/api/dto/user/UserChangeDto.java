@@ -0,0 +1,23 @@
+package com.api.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserChangeDto {
+    private Long offset;
+    private String type;
+    private UUID id;
+    private String nome;
+    private String email;
+    private Long version;
+    private Instant changedAt;
+}
@@ -0,0 +1,15 @@
+package com.api.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserChangePageDto {
+    private List<UserChangeDto> changes;
+    private Long nextOffset;
+}
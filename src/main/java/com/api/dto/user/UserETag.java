@@ -0,0 +1,83 @@
+package com.api.dto.user;
+
+import com.api.exception.user.UserPreconditionFailedException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A user's tags are strong and name one representation of one version: {@code "3"} for JSON, {@code "3-cbor"}
+ * and {@code "3-smile"} for the binary formats, whose bytes differ. {@code If-Match} is compared strongly, as
+ * RFC 9110 requires, so weak tags in it never match.
+ * <p>
+ * The list tag is weak: it names the state of every page in every format, is only ever compared in
+ * {@code If-None-Match}, and a strong tag would stop Tomcat from compressing the page.
+ */
+public class UserETag {
+    private static final String WEAK_PREFIX = "W/";
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final List<MediaType> REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+
+    public static String of(Long version, String accept) {
+        MediaType representation = representation(accept);
+        if (representation == MediaType.APPLICATION_CBOR) return "\"" + version + "-cbor\"";
+        if (representation == SMILE) return "\"" + version + "-smile\"";
+        return "\"" + version + "\"";
+    }
+
+    public static String weak(Object tag) {
+        return WEAK_PREFIX + "\"" + tag + "\"";
+    }
+
+    /**
+     * The versions named by the strong tags in {@code ifMatch}, or null when there is no precondition. Throws
+     * when the header names no version at all, since then nothing can match.
+     */
+    public static List<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) return null;
+        if (ifMatch.trim().equals("*")) return null;
+
+        List<Long> versions = new ArrayList<>();
+
+        for (String element : ifMatch.split(",")) {
+            String value = element.trim();
+            if (value.startsWith(WEAK_PREFIX) || value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') continue;
+
+            String tag = value.substring(1, value.length() - 1);
+            int suffix = tag.indexOf('-');
+
+            try {
+                versions.add(Long.valueOf(suffix < 0 ? tag : tag.substring(0, suffix)));
+            } catch (NumberFormatException ignored) {
+                // Not one of ours; it can't match.
+            }
+        }
+
+        if (versions.isEmpty()) throw new UserPreconditionFailedException("A versão do usuário não corresponde ao cabeçalho If-Match.");
+        return versions;
+    }
+
+    // The format the message converters will pick: the first representation the highest-quality accepted
+    // type includes, JSON when nothing is asked for.
+    private static MediaType representation(String accept) {
+        if (accept == null || accept.isBlank()) return MediaType.APPLICATION_JSON;
+
+        try {
+            List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+            for (MediaType type : accepted) {
+                for (MediaType representation : REPRESENTATIONS) {
+                    if (type.includes(representation)) return representation;
+                }
+            }
+        } catch (InvalidMediaTypeException ignored) {
+            // Negotiation fails on it too; the tag is never sent.
+        }
+
+        return MediaType.APPLICATION_JSON;
+    }
+}
@@ -0,0 +1,24 @@
+package com.api.dto.user;
+
+import com.api.entity.UserSummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+public class UserJsonWriter {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NOME = new SerializedString("nome");
+    private static final SerializedString EMAIL = new SerializedString("email");
+
+    public static void writeUserResponseDto(UserSummary user, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeString(user.getId() == null ? null : user.getId().toString());
+        generator.writeFieldName(NOME);
+        generator.writeString(user.getName());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(user.getEmail());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,20 @@
+package com.api.dto.user;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserLoginRequestDto {
+    @NotBlank
+    @Email
+    private String email;
+    @NotBlank
+    private String password;
+}
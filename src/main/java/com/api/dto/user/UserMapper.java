@@ -1,15 +1,17 @@
 package com.api.dto.user;
 
 import com.api.entity.User;
+import com.api.entity.UserChange;
+import com.api.entity.UserSummary;
 
 public class UserMapper {
-    public static User toUser(UserRequestDto dto) {
+    public static User toUser(UserRequestDto dto, String passwordHash) {
         if (dto == null) return null;
 
         return User.builder()
                 .name(dto.getName())
                 .email(dto.getEmail())
-                .password(dto.getPassword())
+                .password(passwordHash)
                 .build();
     }
 
@@ -22,13 +24,32 @@ public class UserMapper {
                 .build();
     }
 
+    public static User toUser(UserBatchUpdateItemDto dto) {
+        if (dto == null) return null;
+
+        return User.builder()
+                .id(dto.getId())
+                .name(dto.getName())
+                .email(dto.getEmail())
+                .build();
+    }
+
     public static UserResponseDto toUserResponseDto(User user) {
         if (user == null) return null;
 
-        return UserResponseDto.builder()
-                .id(user.getId())
-                .nome(user.getName())
-                .email(user.getEmail())
-                .build();
+        return new UserResponseDto(user.getId(), user.getName(), user.getEmail());
+    }
+
+    public static UserResponseDto toUserResponseDto(UserSummary user) {
+        if (user == null) return null;
+
+        return new UserResponseDto(user.getId(), user.getName(), user.getEmail());
+    }
+
+    public static UserChangeDto toUserChangeDto(UserChange change) {
+        if (change == null) return null;
+
+        return new UserChangeDto(change.getOffset(), change.getType().name(), change.getUserId(), change.getName(), change.getEmail(),
+                change.getVersion(), change.getChangedAt());
     }
 }
\ No newline at end of file
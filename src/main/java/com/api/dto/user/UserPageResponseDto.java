@@ -0,0 +1,17 @@
+package com.api.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserPageResponseDto {
+    private List<UserResponseDto> content;
+    private String nextCursor;
+}
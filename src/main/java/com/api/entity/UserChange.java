@@ -0,0 +1,34 @@
+package com.api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_changes", uniqueConstraints = @UniqueConstraint(name = "uk_user_changes_offset", columnNames = "change_offset"))
+public class UserChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_changes_seq")
+    @SequenceGenerator(name = "user_changes_seq", allocationSize = 50)
+    private Long id;
+    // Ids are handed out before commit, so they can commit out of order; the relay assigns offsets in the
+    // order it sees committed rows, which is what consumers resume from.
+    @Column(name = "change_offset")
+    private Long offset;
+    @Enumerated(EnumType.STRING)
+    private UserChangeType type;
+    private UUID userId;
+    private String name;
+    private String email;
+    private Long version;
+    private Instant changedAt;
+}
@@ -0,0 +1,5 @@
+package com.api.entity;
+
+public enum UserChangeType {
+    CREATED, UPDATED, DELETED
+}
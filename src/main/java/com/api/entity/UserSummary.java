@@ -0,0 +1,10 @@
+package com.api.entity;
+
+import java.util.UUID;
+
+public interface UserSummary {
+    UUID getId();
+    String getName();
+    String getEmail();
+    Long getVersion();
+}
@@ -0,0 +1,32 @@
+package com.api.entity.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+public class AssignableUuidGenerator implements BeforeExecutionGenerator {
+    private final UuidStyle style;
+
+    public AssignableUuidGenerator(AssignableUuid config) {
+        this.style = config.style();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        Object assignedId = session.getEntityPersister(null, owner).getIdentifier(owner, session);
+        return assignedId != null ? assignedId : style.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
@@ -0,0 +1,12 @@
+package com.api.entity.id;
+
+import java.util.UUID;
+
+public enum UuidStyle {
+    RANDOM,
+    TIME_ORDERED;
+
+    public UUID next() {
+        return this == TIME_ORDERED ? UuidV7.next() : UUID.randomUUID();
+    }
+}
@@ -0,0 +1,28 @@
+package com.api.entity.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class UuidV7 {
+    // Unix milliseconds shifted left by 12, plus a 12-bit counter for ids created in the same millisecond.
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long last;
+        long stamp;
+
+        do {
+            last = LAST_STAMP.get();
+            stamp = Math.max(now, last + 1);
+        } while (!LAST_STAMP.compareAndSet(last, stamp));
+
+        long mostSigBits = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSigBits = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -1,62 +1,281 @@
 package com.api.exception;
 
 import com.api.exception.user.UserFieldsNullException;
+import com.api.exception.user.UserChangesExpiredException;
 import com.api.exception.user.UserEmailAlreadyExistsException;
+import com.api.exception.user.UserException;
+import com.api.exception.user.UserInvalidCredentialsException;
 import com.api.exception.user.UserNotFoundException;
+import com.api.exception.user.UserOverloadedException;
+import com.api.exception.user.UserPageInvalidException;
+import com.api.exception.user.UserPreconditionFailedException;
+import com.api.exception.user.UserQueueFullException;
+import com.api.exception.user.UserRateLimitExceededException;
+import com.api.exception.user.UserSearchInvalidException;
+import com.api.exception.user.UserVersionConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    private static final int MAX_CACHED_DETAILS_PER_TYPE = 32;
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final List<MediaType> ERROR_BODY_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+    private final MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+    private final ClassValue<Map<String, CachedResponse>> cachedResponses = new ClassValue<>() {
+        @Override
+        protected Map<String, CachedResponse> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ExceptionResponse> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+    public ResponseEntity<Object> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+        Map<String, String> errors = new HashMap<>();
+
+        ex.getBindingResult().getFieldErrors().forEach(error -> {
+            errors.put(error.getField(), error.getDefaultMessage());
+        });
+
+        return buildExceptionResponse(ex, HttpStatus.BAD_REQUEST, errors.toString());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleWebExchangeBindException(WebExchangeBindException ex) {
         Map<String, String> errors = new HashMap<>();
 
         ex.getBindingResult().getFieldErrors().forEach(error -> {
             errors.put(error.getField(), error.getDefaultMessage());
         });
 
-        return buildExceptionResponse(HttpStatus.BAD_REQUEST, errors.toString());
+        return buildExceptionResponse(ex, HttpStatus.BAD_REQUEST, errors.toString());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Object> handleServerWebInputException(ServerWebInputException ex) {
+        return buildExceptionResponse(ex, HttpStatus.BAD_REQUEST, "Corpo da requisição ou parâmetro de URL inválido.");
     }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
-    public ResponseEntity<ExceptionResponse> handleHttpMessageNotReadable(HttpMessageNotReadableException ex) {
-        return buildExceptionResponse(HttpStatus.BAD_REQUEST, "Corpo da requisição ausente ou malformado.");
+    public ResponseEntity<Object> handleHttpMessageNotReadable(HttpMessageNotReadableException ex) {
+        return buildExceptionResponse(ex, HttpStatus.BAD_REQUEST, "Corpo da requisição ausente ou malformado.");
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
-    public ResponseEntity<ExceptionResponse> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex) {
-        return buildExceptionResponse(HttpStatus.BAD_REQUEST, "Parâmetro de URL inválido.");
+    public ResponseEntity<Object> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        return buildExceptionResponse(ex, HttpStatus.BAD_REQUEST, "Parâmetro de URL inválido.");
     }
 
     @ExceptionHandler(UserEmailAlreadyExistsException.class)
-    public ResponseEntity<ExceptionResponse> handleUserEmailAlreadyExistsException(UserEmailAlreadyExistsException ex) {
-        return buildExceptionResponse(HttpStatus.CONFLICT, ex.getMessage());
+    public ResponseEntity<Object> handleUserEmailAlreadyExistsException(UserEmailAlreadyExistsException ex) {
+        return buildExceptionResponse(ex, HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserInvalidCredentialsException.class)
+    public ResponseEntity<Object> handleUserInvalidCredentialsException(UserInvalidCredentialsException ex) {
+        return buildExceptionResponse(ex, HttpStatus.UNAUTHORIZED, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserVersionConflictException.class)
+    public ResponseEntity<Object> handleUserVersionConflictException(UserVersionConflictException ex) {
+        return buildExceptionResponse(ex, HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserPreconditionFailedException.class)
+    public ResponseEntity<Object> handleUserPreconditionFailedException(UserPreconditionFailedException ex) {
+        return buildExceptionResponse(ex, HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserQueueFullException.class)
+    public ResponseEntity<Object> handleUserQueueFullException(UserQueueFullException ex) {
+        return buildExceptionResponse(ex, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserRateLimitExceededException.class)
+    public ResponseEntity<Object> handleUserRateLimitExceededException(UserRateLimitExceededException ex) {
+        return withRetryAfter(buildExceptionResponse(ex, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
+    @ExceptionHandler(UserOverloadedException.class)
+    public ResponseEntity<Object> handleUserOverloadedException(UserOverloadedException ex) {
+        return withRetryAfter(buildExceptionResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
     }
 
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<ExceptionResponse> handleUserNotFoundException(UserNotFoundException ex) {
-        return buildExceptionResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    public ResponseEntity<Object> handleUserNotFoundException(UserNotFoundException ex) {
+        return buildExceptionResponse(ex, HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     @ExceptionHandler(UserFieldsNullException.class)
-    public ResponseEntity<ExceptionResponse> handleUserFieldsNullException(UserFieldsNullException ex) {
-        return buildExceptionResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    public ResponseEntity<Object> handleUserFieldsNullException(UserFieldsNullException ex) {
+        return buildExceptionResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserPageInvalidException.class)
+    public ResponseEntity<Object> handleUserPageInvalidException(UserPageInvalidException ex) {
+        return buildExceptionResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserSearchInvalidException.class)
+    public ResponseEntity<Object> handleUserSearchInvalidException(UserSearchInvalidException ex) {
+        return buildExceptionResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
-    private ResponseEntity<ExceptionResponse> buildExceptionResponse(HttpStatus status, String detail) {
+    @ExceptionHandler(UserChangesExpiredException.class)
+    public ResponseEntity<Object> handleUserChangesExpiredException(UserChangesExpiredException ex) {
+        return buildExceptionResponse(ex, HttpStatus.GONE, ex.getMessage());
+    }
+
+    // The body is in the format the client accepts: JSON by default, CBOR or Smile when asked for. Clients of
+    // the streaming routes ask only for text/event-stream or NDJSON, which an error body can't be written as;
+    // they get JSON rather than no body at all. User errors get cached bytes; on the reactive stack, where the
+    // request isn't reachable from here, the codecs negotiate the cached body instead.
+    private ResponseEntity<Object> buildExceptionResponse(Exception ex, HttpStatus status, String detail) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        MediaType bodyType = errorBodyType();
+
+        if (ex instanceof UserException) {
+            CachedResponse cached = cachedResponse(ex.getClass(), status, detail);
+            cached.counter.increment();
+            if (bodyType != null) return response.contentType(bodyType).body(cached.bytes(bodyType));
+            return response.body(cached.body());
+        }
+
+        meterRegistry.counter("api.exceptions",
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+        if (bodyType != null) response.contentType(bodyType);
+        return response.body(new ExceptionResponse(status.value(), detail));
+    }
+
+    // The format the converters would pick for the error body, or null when the request isn't reachable.
+    private static MediaType errorBodyType() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) return null;
+
+        try {
+            List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(attributes.getRequest().getHeader(HttpHeaders.ACCEPT)));
+            accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+            for (MediaType type : accepted) {
+                for (MediaType bodyType : ERROR_BODY_TYPES) {
+                    if (type.includes(bodyType)) return bodyType;
+                }
+            }
+        } catch (InvalidMediaTypeException ex) {
+            // Falls back to JSON like a request that accepts nothing we can write.
+        }
+
+        return MediaType.APPLICATION_JSON;
+    }
+
+    // User exceptions carry a handful of fixed messages, so their counter and serialized bodies are kept per
+    // type and message, one per format; they are re-rendered at most once a second to keep the timestamp current.
+    private CachedResponse cachedResponse(Class<?> type, HttpStatus status, String detail) {
+        Map<String, CachedResponse> byDetail = cachedResponses.get(type);
+        CachedResponse response = byDetail.get(detail);
+        if (response != null && response.status == status) return response;
+
+        Counter counter = meterRegistry.counter("api.exceptions",
+                "exception", type.getSimpleName(),
+                "status", String.valueOf(status.value()));
+        response = new CachedResponse(status, detail, counter);
+
+        if (byDetail.size() < MAX_CACHED_DETAILS_PER_TYPE) byDetail.put(detail, response);
+        return response;
+    }
+
+    private byte[] serialize(ExceptionResponse response, MediaType bodyType) {
+        ObjectMapper mapper = bodyType == MediaType.APPLICATION_CBOR ? cborHttpMessageConverter.getObjectMapper()
+                : bodyType == APPLICATION_SMILE ? smileHttpMessageConverter.getObjectMapper()
+                : objectMapper;
+
+        try {
+            return mapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private ResponseEntity<Object> withRetryAfter(ResponseEntity<Object> response) {
         return ResponseEntity
-                .status(status)
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(new ExceptionResponse(status.value(), detail));
+                .status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
+    private final class CachedResponse {
+        private final HttpStatus status;
+        private final String detail;
+        private final Counter counter;
+        private volatile RenderedBody body;
+
+        private CachedResponse(HttpStatus status, String detail, Counter counter) {
+            this.status = status;
+            this.detail = detail;
+            this.counter = counter;
+        }
+
+        ExceptionResponse body() {
+            return current().response;
+        }
+
+        byte[] bytes(MediaType bodyType) {
+            RenderedBody current = current();
+            int index = ERROR_BODY_TYPES.indexOf(bodyType);
+            byte[] bytes = current.bytes.get(index);
+            if (bytes != null) return bytes;
+
+            // Racing threads render the same bytes; whichever is stored, every one is correct.
+            bytes = serialize(current.response, bodyType);
+            current.bytes.set(index, bytes);
+            return bytes;
+        }
+
+        private RenderedBody current() {
+            long second = System.currentTimeMillis() / 1000;
+            RenderedBody current = body;
+            if (current != null && current.second == second) return current;
+
+            current = new RenderedBody(second, new ExceptionResponse(status.value(), detail), new AtomicReferenceArray<>(ERROR_BODY_TYPES.size()));
+            body = current;
+            return current;
+        }
+    }
+
+    private record RenderedBody(long second, ExceptionResponse response, AtomicReferenceArray<byte[]> bytes) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,7 @@
+package com.api.exception.user;
+
+public class UserChangesExpiredException extends UserException {
+    public UserChangesExpiredException(String message) {
+        super(message);
+    }
+}
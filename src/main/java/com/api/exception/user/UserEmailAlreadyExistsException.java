@@ -1,6 +1,6 @@
 package com.api.exception.user;
 
-public class UserEmailAlreadyExistsException extends RuntimeException {
+public class UserEmailAlreadyExistsException extends UserException {
     public UserEmailAlreadyExistsException(String message) {
         super(message);
     }
@@ -0,0 +1,11 @@
+package com.api.exception.user;
+
+/**
+ * Base for the user API's expected failures (404, 409, 412...). They are control flow answered by
+ * GlobalExceptionHandler, never logged, so they skip the stack trace and suppression bookkeeping.
+ */
+public abstract class UserException extends RuntimeException {
+    protected UserException(String message) {
+        super(message, null, false, false);
+    }
+}
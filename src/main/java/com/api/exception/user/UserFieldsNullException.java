@@ -1,6 +1,6 @@
 package com.api.exception.user;
 
-public class UserFieldsNullException extends RuntimeException {
+public class UserFieldsNullException extends UserException {
     public UserFieldsNullException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package com.api.exception.user;
+
+public class UserInvalidCredentialsException extends UserException {
+    public UserInvalidCredentialsException(String message) {
+        super(message);
+    }
+}
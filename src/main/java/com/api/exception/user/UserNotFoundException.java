@@ -1,6 +1,6 @@
 package com.api.exception.user;
 
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends UserException {
     public UserNotFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package com.api.exception.user;
+
+public class UserOverloadedException extends UserException {
+    public UserOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.api.exception.user;
+
+public class UserPageInvalidException extends UserException {
+    public UserPageInvalidException(String message) {
+        super(message);
+    }
+}
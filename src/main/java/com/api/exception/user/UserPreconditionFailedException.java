@@ -0,0 +1,7 @@
+package com.api.exception.user;
+
+public class UserPreconditionFailedException extends UserException {
+    public UserPreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.api.exception.user;
+
+public class UserQueueFullException extends UserException {
+    public UserQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.api.exception.user;
+
+public class UserRateLimitExceededException extends UserException {
+    public UserRateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.api.exception.user;
+
+public class UserSearchInvalidException extends UserException {
+    public UserSearchInvalidException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.api.exception.user;
+
+public class UserVersionConflictException extends UserException {
+    public UserVersionConflictException(String message) {
+        super(message);
+    }
+}
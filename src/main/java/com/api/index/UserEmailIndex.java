@@ -0,0 +1,43 @@
+package com.api.index;
+
+import com.api.repository.UserChangeRepository;
+import com.api.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class UserEmailIndex {
+    private final UserRepository userRepository;
+    private final UserChangeRepository userChangeRepository;
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+    private volatile long loadedOffset;
+
+    @PostConstruct
+    public void load() {
+        // Read before the e-mails: changes up to here are in what is loaded, later ones may not be.
+        loadedOffset = userChangeRepository.findMaxOffset();
+        emails.addAll(userRepository.findAllEmails());
+    }
+
+    /** The last change offset {@link #load()} is known to include; changes after it must be applied from the feed. */
+    public long loadedOffset() {
+        return loadedOffset;
+    }
+
+    public boolean contains(String email) {
+        return email != null && emails.contains(email);
+    }
+
+    public boolean reserve(String email) {
+        return email == null || emails.add(email);
+    }
+
+    public void release(String email) {
+        if (email != null) emails.remove(email);
+    }
+}
@@ -0,0 +1,332 @@
+package com.api.index;
+
+import com.api.entity.User;
+import com.api.entity.UserSummary;
+import com.api.repository.UserChangeRepository;
+import com.api.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndex {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Same order as the database's uuid comparison, so search pages line up with GET /users.
+    private static final Comparator<UUID> ID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final UserRepository userRepository;
+    private final UserChangeRepository userChangeRepository;
+    private final Map<UUID, Document> documents = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Posting> postings = new ConcurrentSkipListMap<>();
+    private volatile long loadedOffset;
+
+    @PostConstruct
+    public void load() {
+        // Read before the users: changes up to here are in what is loaded, later ones may not be.
+        loadedOffset = userChangeRepository.findMaxOffset();
+        List<UserSummary> users = userRepository.readAllByOrderByIdAsc(Limit.of(LOAD_BATCH_SIZE));
+
+        while (!users.isEmpty()) {
+            users.forEach(this::put);
+            if (users.size() < LOAD_BATCH_SIZE) break;
+            users = userRepository.readByIdGreaterThanOrderByIdAsc(users.get(users.size() - 1).getId(), Limit.of(LOAD_BATCH_SIZE));
+        }
+    }
+
+    /** The last change offset {@link #load()} is known to include; changes after it must be applied from the feed. */
+    public long loadedOffset() {
+        return loadedOffset;
+    }
+
+    public void put(User user) {
+        put(new Document(user.getId(), user.getName(), user.getEmail(), user.getVersion()));
+    }
+
+    public void put(UserSummary user) {
+        put(new Document(user.getId(), user.getName(), user.getEmail(), user.getVersion()));
+    }
+
+    public synchronized void remove(UUID id) {
+        Document previous = documents.remove(id);
+        if (previous != null) unindex(previous);
+    }
+
+    public UserSummary get(UUID id) {
+        return documents.get(id);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Returns up to {@code limit} users, in id order after {@code after}, whose name or e-mail has a word
+     * starting with every word of {@code query}. A query word that is no word's prefix falls back to
+     * words within one or two typos of it.
+     */
+    public List<UserSummary> search(String query, UUID after, int limit) {
+        List<String> words = new ArrayList<>(tokenize(query));
+        if (words.isEmpty()) return List.of();
+
+        List<Matcher> matchers = new ArrayList<>(words.size());
+
+        for (String word : words) {
+            Matcher matcher = Matcher.of(word, postings);
+            if (matcher.terms.isEmpty()) return List.of();
+            matchers.add(matcher);
+        }
+
+        matchers.sort(Comparator.comparingLong(Matcher::cardinality));
+        List<Matcher> filters = matchers.subList(1, matchers.size());
+
+        // Every posting list is already in id order, so merging the driver's lists yields candidates in
+        // page order and the scan stops as soon as the page is full instead of visiting every match.
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>();
+
+        for (String term : matchers.get(0).terms) {
+            Posting posting = postings.get(term);
+            if (posting == null) continue;
+
+            Cursor cursor = new Cursor(after == null ? posting.ids.iterator() : posting.ids.tailSet(after, false).iterator());
+            if (cursor.advance()) cursors.add(cursor);
+        }
+
+        List<UserSummary> users = new ArrayList<>(Math.min(limit, 64));
+        UUID previous = null;
+
+        while (users.size() < limit && !cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            UUID id = cursor.current;
+            if (cursor.advance()) cursors.add(cursor);
+
+            if (id.equals(previous)) continue;
+            previous = id;
+
+            Document document = documents.get(id);
+            if (document != null && matchesAll(document, filters)) users.add(document);
+        }
+
+        return users;
+    }
+
+    private synchronized void put(Document document) {
+        if (document.id == null) return;
+
+        Document previous = documents.put(document.id, document);
+        if (previous != null) unindex(previous);
+
+        for (String term : document.terms) {
+            Posting posting = postings.computeIfAbsent(term, key -> new Posting());
+            if (posting.ids.add(document.id)) posting.size++;
+        }
+    }
+
+    private void unindex(Document document) {
+        for (String term : document.terms) {
+            Posting posting = postings.get(term);
+            if (posting == null) continue;
+
+            if (posting.ids.remove(document.id)) posting.size--;
+            if (posting.size == 0) postings.remove(term);
+        }
+    }
+
+    private static boolean matchesAll(Document document, List<Matcher> matchers) {
+        for (Matcher matcher : matchers) {
+            if (!matcher.matches(document)) return false;
+        }
+
+        return true;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) return tokens;
+
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+
+        for (String token : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+
+        return tokens;
+    }
+
+    static int maxEdits(String word) {
+        if (word.length() < 3) return 0;
+        return word.length() < 6 ? 1 : 2;
+    }
+
+    /** Levenshtein distance, or {@code max + 1} as soon as it is known to exceed {@code max}. */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+
+            if (rowMin > max) return max + 1;
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[b.length()];
+    }
+
+    private static final class Matcher {
+        private final String word;
+        private final boolean fuzzy;
+        private final Collection<String> terms;
+        private final long cardinality;
+
+        private Matcher(String word, boolean fuzzy, Collection<String> terms, long cardinality) {
+            this.word = word;
+            this.fuzzy = fuzzy;
+            this.terms = terms;
+            this.cardinality = cardinality;
+        }
+
+        static Matcher of(String word, NavigableMap<String, Posting> postings) {
+            NavigableMap<String, Posting> prefixed = postings.subMap(word, true, word + Character.MAX_VALUE, false);
+
+            if (!prefixed.isEmpty()) return new Matcher(word, false, prefixed.keySet(), count(prefixed.values()));
+
+            int max = maxEdits(word);
+            if (max == 0) return new Matcher(word, true, Set.of(), 0);
+
+            // Typos in the first letter are rare; restricting candidates to it keeps the scan small.
+            String first = word.substring(0, 1);
+            Set<String> terms = new HashSet<>();
+            long cardinality = 0;
+
+            for (Map.Entry<String, Posting> entry : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                if (distance(word, entry.getKey(), max) <= max) {
+                    terms.add(entry.getKey());
+                    cardinality += entry.getValue().size;
+                }
+            }
+
+            return new Matcher(word, true, terms, cardinality);
+        }
+
+        long cardinality() {
+            return cardinality;
+        }
+
+        boolean matches(Document document) {
+            for (String term : document.terms) {
+                if (fuzzy ? terms.contains(term) : term.startsWith(word)) return true;
+            }
+
+            return false;
+        }
+
+        private static long count(Collection<Posting> postings) {
+            long count = 0;
+            for (Posting posting : postings) count += posting.size;
+            return count;
+        }
+    }
+
+    private static final class Posting {
+        // ConcurrentSkipListSet.size() walks the whole set; writers are serialized, so a volatile count is enough.
+        private final NavigableSet<UUID> ids = new ConcurrentSkipListSet<>(ID_ORDER);
+        private volatile int size;
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Iterator<UUID> ids;
+        private UUID current;
+
+        private Cursor(Iterator<UUID> ids) {
+            this.ids = ids;
+        }
+
+        boolean advance() {
+            if (!ids.hasNext()) return false;
+            current = ids.next();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return ID_ORDER.compare(current, other.current);
+        }
+    }
+
+    private static final class Document implements UserSummary {
+        private final UUID id;
+        private final String name;
+        private final String email;
+        private final Long version;
+        private final Set<String> terms;
+
+        private Document(UUID id, String name, String email, Long version) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.version = version;
+            this.terms = tokenize(name);
+            this.terms.addAll(tokenize(email));
+        }
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public Long getVersion() {
+            return version;
+        }
+    }
+}
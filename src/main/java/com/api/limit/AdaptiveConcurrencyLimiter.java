@@ -0,0 +1,51 @@
+package com.api.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps in-flight requests for one route and adapts the cap with AIMD: a response slower than the
+ * target latency (or a server error) shrinks it by 10%, a fast response while the route is at least
+ * half busy grows it by one.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Written without CAS: concurrent adjustments may overwrite each other, which only delays convergence.
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(UserRateLimitProperties.Concurrency concurrency) {
+        this.minLimit = Math.max(1, concurrency.getMinLimit());
+        this.maxLimit = Math.max(minLimit, concurrency.getMaxLimit());
+        this.targetLatencyNanos = concurrency.getTargetLatency().toNanos();
+        this.limit = Math.min(maxLimit, Math.max(minLimit, concurrency.getInitialLimit()));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        int busy = inFlight.getAndDecrement();
+        int current = limit;
+
+        if (failed || latencyNanos > targetLatencyNanos) {
+            limit = Math.max(minLimit, current - Math.max(1, current / 10));
+        } else if (busy * 2 >= current && current < maxLimit) {
+            limit = current + 1;
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,65 @@
+package com.api.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One token bucket per client, held in a bounded cache. A bucket left idle long enough to refill
+ * completely is dropped, since a fresh bucket would be in the same state. Each bucket packs the last
+ * refill time (milliseconds, upper 40 bits) and the remaining tokens (thousandths, lower 24 bits)
+ * into one long updated by CAS, so a decision for a known client neither locks nor allocates.
+ */
+public class TokenBucketLimiter {
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1000;
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long capacity;
+    private final long refillPerMilli;
+    private final long fullRefillMillis;
+    private final long origin = System.nanoTime();
+
+    public TokenBucketLimiter(int requestsPerSecond, int burst, long maxClients) {
+        if (requestsPerSecond < 1 || burst < 1 || burst * ONE_TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive and burst between 1 and " + TOKEN_MASK / ONE_TOKEN);
+        }
+
+        this.capacity = burst * ONE_TOKEN;
+        this.refillPerMilli = requestsPerSecond;
+        this.fullRefillMillis = capacity / refillPerMilli + 1;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofMillis(fullRefillMillis))
+                .build();
+    }
+
+    public boolean tryAcquire(String client) {
+        AtomicLong bucket = buckets.get(client, key -> new AtomicLong());
+        long now = (System.nanoTime() - origin) / 1_000_000 + 1;
+
+        while (true) {
+            long state = bucket.get();
+            long tokens;
+
+            if (state == 0) {
+                tokens = capacity;
+            } else {
+                long elapsed = Math.min(now - (state >>> TOKEN_BITS), fullRefillMillis);
+                tokens = Math.min(capacity, (state & TOKEN_MASK) + Math.max(0, elapsed) * refillPerMilli);
+            }
+
+            if (tokens < ONE_TOKEN) return false;
+
+            if (bucket.compareAndSet(state, (now << TOKEN_BITS) | (tokens - ONE_TOKEN))) return true;
+        }
+    }
+
+    public long clients() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,102 @@
+package com.api.limit;
+
+import com.api.exception.user.UserOverloadedException;
+import com.api.exception.user.UserRateLimitExceededException;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class UserRateLimitInterceptor implements AsyncHandlerInterceptor {
+    private static final UserRateLimitExceededException RATE_LIMIT_EXCEEDED =
+            new UserRateLimitExceededException("Limite de requisições excedido. Tente novamente em instantes.");
+    private static final UserOverloadedException OVERLOADED =
+            new UserOverloadedException("Serviço sobrecarregado. Tente novamente em instantes.");
+    private static final String STARTED_AT = UserRateLimitInterceptor.class.getName() + ".STARTED_AT";
+
+    private final UserRateLimitProperties properties;
+    private final TokenBucketLimiter clientLimiter;
+    private final Map<Method, AdaptiveConcurrencyLimiter> routeLimiters = new ConcurrentHashMap<>();
+
+    public UserRateLimitInterceptor(UserRateLimitProperties properties) {
+        this.properties = properties;
+        this.clientLimiter = new TokenBucketLimiter(properties.getRequestsPerSecond(), properties.getBurst(), properties.getMaxClients());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async results are dispatched through the chain a second time; only the original request counts.
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod handlerMethod)) return true;
+
+        if (!clientLimiter.tryAcquire(clientOf(request))) throw RATE_LIMIT_EXCEEDED;
+        if (!routeLimiter(handlerMethod.getMethod()).tryAcquire()) throw OVERLOADED;
+
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !(request.getAttribute(STARTED_AT) instanceof Long startedAt)) return;
+
+        // Streams, long polls and deferred writes keep their permit until the response completes, since they
+        // hold a connection (and often a pooled database connection) for that long. The limit only adapts to
+        // the time the handler took to start, not to how long the client stays connected.
+        AdaptiveConcurrencyLimiter limiter = routeLimiter(handlerMethod.getMethod());
+        long latency = System.nanoTime() - startedAt;
+        request.removeAttribute(STARTED_AT);
+
+        request.getAsyncContext().addListener(new AsyncListener() {
+            private boolean failed;
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                limiter.release(latency, failed || ((HttpServletResponse) event.getSuppliedResponse()).getStatus() >= 500);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                failed = true;
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                failed = true;
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod handlerMethod)) return;
+        // Not set when the request was rejected in preHandle, or when it went async and is released by its listener.
+        if (!(request.getAttribute(STARTED_AT) instanceof Long startedAt)) return;
+
+        routeLimiter(handlerMethod.getMethod()).release(System.nanoTime() - startedAt, ex != null || response.getStatus() >= 500);
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(properties.getClientHeader());
+        // Behind a proxy, the remote address is the client's only if the server resolves it from a trusted
+        // forwarded-for header; see server.tomcat.remoteip.* in application.properties.
+        return apiKey != null ? apiKey : request.getRemoteAddr();
+    }
+
+    private AdaptiveConcurrencyLimiter routeLimiter(Method method) {
+        AdaptiveConcurrencyLimiter limiter = routeLimiters.get(method);
+        if (limiter != null) return limiter;
+
+        return routeLimiters.computeIfAbsent(method, key -> new AdaptiveConcurrencyLimiter(properties.concurrencyFor(key.getName())));
+    }
+}
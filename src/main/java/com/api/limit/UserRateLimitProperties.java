@@ -0,0 +1,32 @@
+package com.api.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "api.users.rate-limit")
+public class UserRateLimitProperties {
+    private boolean enabled;
+    private int requestsPerSecond = 100;
+    private int burst = 200;
+    private String clientHeader = "X-API-Key";
+    private long maxClients = 100_000;
+    private Concurrency concurrency = new Concurrency();
+    private Map<String, Concurrency> routes = new LinkedHashMap<>();
+
+    public Concurrency concurrencyFor(String route) {
+        return routes.getOrDefault(route, concurrency);
+    }
+
+    @Data
+    public static class Concurrency {
+        private int initialLimit = 32;
+        private int minLimit = 4;
+        private int maxLimit = 128;
+        private Duration targetLatency = Duration.ofMillis(250);
+    }
+}
@@ -0,0 +1,89 @@
+package com.api.password;
+
+import com.api.exception.user.UserOverloadedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on its own pool, sized to the cores by default, so hashing never holds a request thread and
+ * a signup spike queues here instead of starving every other endpoint of CPU. When the queue is full the
+ * request is shed with a 503.
+ */
+@Component
+public class UserPasswordHasher {
+    private static final String BCRYPT_PREFIX = "$2";
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+
+    public UserPasswordHasher(UserPasswordProperties properties, MeterRegistry meterRegistry) {
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+
+        this.encoder = new BCryptPasswordEncoder(properties.getStrength());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "user-password-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hashTimer = Timer.builder("users.password.hash").tag("strength", String.valueOf(properties.getStrength())).register(meterRegistry);
+
+        Gauge.builder("users.password.queue", executor.getQueue(), Queue::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> hashTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * Checks {@code rawPassword} against the stored value. On a match against a hash made with a lower
+     * strength than the configured one, or against a plaintext value stored before hashing was introduced,
+     * the result also carries a fresh hash for the caller to persist.
+     */
+    public CompletableFuture<Verification> verify(String rawPassword, String storedPassword) {
+        return submit(() -> {
+            if (rawPassword == null || storedPassword == null) return new Verification(false, null);
+
+            boolean hashed = storedPassword.startsWith(BCRYPT_PREFIX);
+            boolean matches = hashed
+                    ? encoder.matches(rawPassword, storedPassword)
+                    : MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8), storedPassword.getBytes(StandardCharsets.UTF_8));
+
+            if (!matches || (hashed && !encoder.upgradeEncoding(storedPassword))) return new Verification(matches, null);
+
+            return new Verification(true, hashTimer.record(() -> encoder.encode(rawPassword)));
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException ex) {
+            throw new UserOverloadedException("Serviço sobrecarregado. Tente novamente em instantes.");
+        }
+    }
+
+    public record Verification(boolean matches, String rehashedPassword) {
+    }
+}
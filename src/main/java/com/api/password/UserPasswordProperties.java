@@ -0,0 +1,14 @@
+package com.api.password;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "api.users.password")
+public class UserPasswordProperties {
+    // BCrypt log rounds; each step doubles the hashing time. Pick it with UserPasswordHashBenchmark.
+    private int strength = 10;
+    // Zero sizes the pool to the available processors.
+    private int threads = 0;
+    private int queueCapacity = 1_000;
+}
@@ -0,0 +1,21 @@
+package com.api.queue;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "api.users.write-behind")
+public class UserWriteBehindProperties {
+    private boolean enabled = false;
+    private int capacity = 10_000;
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofMillis(50);
+    private Duration retryBackoff = Duration.ofMillis(100);
+    private Duration maxRetryBackoff = Duration.ofSeconds(10);
+    private Path journal = Path.of("data", "user-write-behind.journal");
+    // Completed entries the journal may hold before it is compacted down to the pending ones.
+    private int journalCompactionThreshold = 10_000;
+}
@@ -0,0 +1,231 @@
+package com.api.queue;
+
+import com.api.cache.UserCache;
+import com.api.cache.UserChangeCounter;
+import com.api.changes.UserChangeOutbox;
+import com.api.entity.User;
+import com.api.exception.user.UserQueueFullException;
+import com.api.index.UserEmailIndex;
+import com.api.index.UserSearchIndex;
+import com.api.repository.UserRepository;
+import com.api.service.UserWriteStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class UserWriteBehindQueue {
+    private final UserWriteBehindProperties properties;
+    private final UserRepository userRepository;
+    private final UserEmailIndex userEmailIndex;
+    private final UserSearchIndex userSearchIndex;
+    private final UserCache userCache;
+    private final UserChangeCounter userChangeCounter;
+    private final UserChangeOutbox userChangeOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final UserWriteJournal journal;
+    private final BlockingQueue<User> queue = new LinkedBlockingQueue<>();
+    private final Map<UUID, UserWriteStatus> pending = new ConcurrentHashMap<>();
+    private final Cache<UUID, UserWriteStatus> failures = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    private Semaphore permits;
+    private volatile boolean running;
+    private Thread writer;
+
+    public UserWriteBehindQueue(UserWriteBehindProperties properties, UserRepository userRepository, UserEmailIndex userEmailIndex,
+                                UserSearchIndex userSearchIndex, UserCache userCache, UserChangeCounter userChangeCounter,
+                                UserChangeOutbox userChangeOutbox, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userRepository = userRepository;
+        this.userEmailIndex = userEmailIndex;
+        this.userSearchIndex = userSearchIndex;
+        this.userCache = userCache;
+        this.userChangeCounter = userChangeCounter;
+        this.userChangeOutbox = userChangeOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.journal = new UserWriteJournal(properties.getJournal(), objectMapper, properties.getJournalCompactionThreshold());
+        this.permits = new Semaphore(properties.getCapacity());
+
+        Gauge.builder("users.write-behind.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) return;
+
+        List<UUID> alreadyPersisted = new ArrayList<>();
+        int replayed = 0;
+
+        for (User user : journal.open()) {
+            if (userRepository.existsById(user.getId())) {
+                alreadyPersisted.add(user.getId());
+            } else {
+                userEmailIndex.reserve(user.getEmail());
+                pending.put(user.getId(), UserWriteStatus.pending());
+                queue.add(user);
+                replayed++;
+            }
+        }
+
+        journal.complete(alreadyPersisted);
+
+        // Replayed writes hold permits like new ones. There can be more of them than the capacity, if it was
+        // lowered since they were journaled; new writes are then refused until enough of them are flushed.
+        permits = new Semaphore(properties.getCapacity() - replayed);
+
+        running = true;
+        writer = new Thread(this::drain, "user-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (writer == null) return;
+
+        running = false;
+        writer.join();
+        journal.close();
+    }
+
+    public void enqueue(User user) {
+        if (!permits.tryAcquire()) throw new UserQueueFullException("Fila de cadastro cheia. Tente novamente em instantes.");
+
+        try {
+            journal.append(user);
+        } catch (IOException ex) {
+            permits.release();
+            throw new UncheckedIOException(ex);
+        }
+
+        pending.put(user.getId(), UserWriteStatus.pending());
+        queue.add(user);
+    }
+
+    public UserWriteStatus status(UUID id) {
+        UserWriteStatus status = pending.get(id);
+        return status != null ? status : failures.getIfPresent(id);
+    }
+
+    private void drain() {
+        long flushInterval = properties.getFlushInterval().toNanos();
+        List<User> batch = new ArrayList<>(properties.getBatchSize());
+
+        while (running || !queue.isEmpty()) {
+            try {
+                User first = queue.poll(flushInterval, TimeUnit.NANOSECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<User> batch) throws InterruptedException {
+        try {
+            if (!retryWhileUnavailable(() -> transactionTemplate.executeWithoutResult(status -> {
+                // A rolled-back attempt leaves versions set, which would make the next one merge instead of insert.
+                batch.forEach(user -> user.setVersion(null));
+                userRepository.saveAll(batch);
+                userChangeOutbox.created(batch);
+            }))) return;
+        } catch (RuntimeException ex) {
+            // One bad row rolls back the whole batch; retry row by row to isolate it.
+            for (User user : batch) {
+                if (!saveOne(user)) return;
+            }
+        }
+
+        List<UUID> ids = new ArrayList<>(batch.size());
+
+        for (User user : batch) {
+            ids.add(user.getId());
+            if (failures.getIfPresent(user.getId()) == null) userSearchIndex.put(user);
+            userCache.invalidate(user.getId());
+            pending.remove(user.getId());
+        }
+
+        try {
+            journal.complete(ids);
+        } catch (IOException ex) {
+            // The rows are in the database; replay skips them by id on the next start.
+        }
+
+        permits.release(batch.size());
+        userChangeCounter.increment();
+    }
+
+    private boolean saveOne(User user) throws InterruptedException {
+        try {
+            return retryWhileUnavailable(() -> transactionTemplate.executeWithoutResult(status -> {
+                user.setVersion(null);
+                userRepository.save(user);
+                userChangeOutbox.created(List.of(user));
+            }));
+        } catch (DataIntegrityViolationException ex) {
+            failures.put(user.getId(), UserWriteStatus.failed("Esse e-mail já existe."));
+        } catch (RuntimeException ex) {
+            failures.put(user.getId(), UserWriteStatus.failed("Não foi possível cadastrar o usuário."));
+            userEmailIndex.release(user.getEmail());
+        }
+
+        return true;
+    }
+
+    /**
+     * Runs {@code write} until it succeeds or fails for a reason other than the database being unreachable.
+     * The rows were journaled and acknowledged with a 202, so an outage may delay them but must not fail them.
+     * Returns false if the queue is stopped meanwhile, leaving them in the journal for the next start.
+     */
+    private boolean retryWhileUnavailable(Runnable write) throws InterruptedException {
+        long backoff = properties.getRetryBackoff().toNanos();
+
+        while (true) {
+            try {
+                write.run();
+                return true;
+            } catch (TransientDataAccessException | RecoverableDataAccessException | DataAccessResourceFailureException
+                     | CannotCreateTransactionException ex) {
+                if (!running) return false;
+
+                TimeUnit.NANOSECONDS.sleep(backoff);
+                backoff = Math.min(backoff * 2, properties.getMaxRetryBackoff().toNanos());
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.api.queue;
+
+import com.api.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends are group-committed: each writes its line under {@code lock}, then waits for a sync covering it. One
+ * thread forces the file for every line written before it started, so under load many appends share one fsync
+ * instead of queueing for their own.
+ * <p>
+ * Completed entries stay in the file until nothing is pending, which under steady load may be never; once they
+ * outnumber the compaction threshold, the pending entries are rewritten to a new file that replaces it.
+ */
+public class UserWriteJournal implements Closeable {
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final int compactionThreshold;
+    // Guards the file and everything below; syncLock orders forces, and is taken after lock when both are held.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Map<UUID, Entry> pending = new LinkedHashMap<>();
+    private FileChannel channel;
+    private long completed;
+    private volatile long appended;
+    private long synced;
+
+    public UserWriteJournal(Path path, ObjectMapper objectMapper, int compactionThreshold) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public List<User> open() throws IOException {
+        lock.lock();
+        try {
+            if (Files.exists(path)) {
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    if (line.isBlank()) continue;
+
+                    Entry entry;
+
+                    try {
+                        entry = objectMapper.readValue(line, Entry.class);
+                    } catch (IOException ex) {
+                        break; // torn last line from a crash mid-write
+                    }
+
+                    if (entry.op() == Op.ADD) pending.put(entry.id(), entry);
+                    else pending.remove(entry.id());
+                }
+            }
+
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+
+            rewrite();
+            return pending.values().stream().map(Entry::toUser).toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(User user) throws IOException {
+        Entry entry = Entry.add(user);
+        long sequence;
+
+        lock.lock();
+        try {
+            write(entry);
+            pending.put(entry.id(), entry);
+            sequence = ++appended;
+        } finally {
+            lock.unlock();
+        }
+
+        syncLock.lock();
+        try {
+            // A force that started after this line was written has already made it durable.
+            if (synced >= sequence) return;
+
+            long upTo = appended;
+            channel.force(false);
+            synced = upTo;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    public void complete(Collection<UUID> ids) throws IOException {
+        lock.lock();
+        try {
+            for (UUID id : ids) {
+                write(Entry.remove(id));
+                if (pending.remove(id) != null) completed++;
+            }
+
+            if (pending.isEmpty()) {
+                channel.truncate(0);
+                channel.position(0);
+                completed = 0;
+            } else if (completed >= compactionThreshold) {
+                compact();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void compact() throws IOException {
+        syncLock.lock();
+        try {
+            channel.close();
+            rewrite();
+            // The new file was forced with every line appended so far.
+            synced = appended;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Replaces the file with just the pending entries, then reopens it for appending.
+    private void rewrite() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Entry entry : pending.values()) write(out, entry);
+            out.force(false);
+        }
+
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        completed = 0;
+    }
+
+    private void write(Entry entry) throws IOException {
+        write(channel, entry);
+    }
+
+    private void write(FileChannel target, Entry entry) throws IOException {
+        byte[] line = objectMapper.writeValueAsBytes(entry);
+        ByteBuffer buffer = ByteBuffer.allocate(line.length + 1).put(line).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) target.write(buffer);
+    }
+
+    enum Op { ADD, REMOVE }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Entry(Op op, UUID id, String name, String email, String password) {
+        static Entry add(User user) {
+            return new Entry(Op.ADD, user.getId(), user.getName(), user.getEmail(), user.getPassword());
+        }
+
+        static Entry remove(UUID id) {
+            return new Entry(Op.REMOVE, id, null, null, null);
+        }
+
+        User toUser() {
+            return User.builder().id(id).name(name).email(email).password(password).build();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.api.repository;
+
+import com.api.entity.UserChange;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+    // Locked so a relay on another node waits instead of assigning offsets to the same rows.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<UserChange> findByOffsetIsNullOrderByIdAsc(Limit limit);
+
+    List<UserChange> findByOffsetGreaterThanOrderByOffsetAsc(Long offset, Limit limit);
+
+    @Query("select coalesce(max(c.offset), 0) from UserChange c")
+    long findMaxOffset();
+
+    @Query("select coalesce(min(c.offset), 0) from UserChange c where c.offset is not null")
+    long findMinOffset();
+
+    @Transactional
+    @Modifying
+    // The latest change is always kept, so offsets keep counting up from it after a restart.
+    @Query("delete from UserChange c where c.offset < :latestOffset and c.changedAt < :before")
+    int deletePublishedBefore(Instant before, long latestOffset);
+}
@@ -1,10 +1,75 @@
 package com.api.repository;
 
 import com.api.entity.User;
+import com.api.entity.UserSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
-    Boolean existsByEmail(String email);
-}
\ No newline at end of file
+    // Any write to the users table invalidates the whole region, so it pays off on read-heavy traffic only.
+    String QUERY_CACHE_REGION = "users.queries";
+
+    Optional<User> findByEmail(String email);
+
+    @Query("select u.email from User u where u.email is not null")
+    List<String> findAllEmails();
+
+    // Read-only here rather than on UserServiceImpl.getUserById, so only cache misses open a transaction
+    // and can be routed to a replica.
+    @Transactional(readOnly = true)
+    Optional<UserSummary> findSummaryById(UUID id);
+
+    // The pages behind GET /users: the same few first pages are asked for over and over between writes.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<UserSummary> findAllByOrderByIdAsc(Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<UserSummary> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    // The same pages uncached, for loading every user once: cached, each would only evict the pages above.
+    List<UserSummary> readAllByOrderByIdAsc(Limit limit);
+
+    List<UserSummary> readByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserSummary> streamAllByOrderByIdAsc();
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.name = coalesce(:name, u.name), u.email = coalesce(:email, u.email), u.version = u.version + 1 " +
+            "where u.id = :id and u.version = :version")
+    int updateUserById(UUID id, String name, String email, Long version);
+
+    // Not versioned: a rehash doesn't change what clients see, so it must not invalidate their ETags.
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id and u.password = :previousPassword")
+    int updatePasswordById(UUID id, String password, String previousPassword);
+
+    @Transactional
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(UUID id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from User u where u.id = :id and u.version = :version")
+    int deleteUserByIdAndVersion(UUID id, Long version);
+}
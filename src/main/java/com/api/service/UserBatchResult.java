@@ -0,0 +1,24 @@
+package com.api.service;
+
+import com.api.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserBatchResult {
+    private final User user;
+    private final RuntimeException error;
+
+    public static UserBatchResult success(User user) {
+        return new UserBatchResult(user, null);
+    }
+
+    public static UserBatchResult failure(RuntimeException error) {
+        return new UserBatchResult(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
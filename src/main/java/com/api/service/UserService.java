@@ -1,15 +1,26 @@
 package com.api.service;
 
 import com.api.entity.User;
+import com.api.entity.UserSummary;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface UserService {
-    List<User> getUsers();
-    User getUserById(UUID id);
+    List<UserSummary> getUsers(UUID after, int limit);
+    List<UserSummary> searchUsers(String query, UUID after, int limit);
+    void streamUsers(Consumer<UserSummary> action);
+    UserSummary getUserById(UUID id);
     User saveUser(User newUser);
+    User enqueueUser(User newUser);
+    UserWriteStatus getUserWriteStatus(UUID id);
     User updateUser(UUID id, User updatedUser);
-    void deleteUser(UUID id);
+    void deleteUser(UUID id, Long version);
+    List<UserBatchResult> saveUsers(List<User> newUsers);
+    List<UserBatchResult> updateUsers(List<User> updatedUsers);
+    List<UserBatchResult> deleteUsers(List<UUID> ids);
     Boolean existsUserByEmail(String email);
-}
\ No newline at end of file
+    CompletableFuture<User> authenticate(String email, String rawPassword);
+}
@@ -0,0 +1,25 @@
+package com.api.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserWriteStatus {
+    public enum State { PENDING, PERSISTED, FAILED }
+
+    private final State state;
+    private final String detail;
+
+    public static UserWriteStatus pending() {
+        return new UserWriteStatus(State.PENDING, null);
+    }
+
+    public static UserWriteStatus persisted() {
+        return new UserWriteStatus(State.PERSISTED, null);
+    }
+
+    public static UserWriteStatus failed(String detail) {
+        return new UserWriteStatus(State.FAILED, detail);
+    }
+}
@@ -1,61 +1,403 @@
 package com.api.service.impl;
 
+import com.api.cache.UserCache;
+import com.api.cache.UserChangeCounter;
+import com.api.changes.UserChangeOutbox;
+import com.api.datasource.ReplicaRoutingDataSource;
 import com.api.exception.user.UserFieldsNullException;
 import com.api.exception.user.UserEmailAlreadyExistsException;
+import com.api.exception.user.UserInvalidCredentialsException;
 import com.api.exception.user.UserNotFoundException;
+import com.api.exception.user.UserPreconditionFailedException;
+import com.api.exception.user.UserVersionConflictException;
 import com.api.entity.User;
+import com.api.entity.UserSummary;
+import com.api.entity.id.UuidV7;
+import com.api.index.UserEmailIndex;
+import com.api.index.UserSearchIndex;
+import com.api.password.UserPasswordHasher;
+import com.api.queue.UserWriteBehindQueue;
 import com.api.repository.UserRepository;
+import com.api.service.UserBatchResult;
 import com.api.service.UserService;
+import com.api.service.UserWriteStatus;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("users.service")
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserEmailIndex userEmailIndex;
+    private final UserSearchIndex userSearchIndex;
+    private final UserCache userCache;
+    private final UserChangeCounter userChangeCounter;
+    private final UserWriteBehindQueue userWriteBehindQueue;
+    private final UserPasswordHasher userPasswordHasher;
+    private final UserChangeOutbox userChangeOutbox;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
 
     @Override
-    public List<User> getUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<UserSummary> getUsers(UUID after, int limit) {
+        if (after == null) return userRepository.findAllByOrderByIdAsc(Limit.of(limit));
+        return userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
     }
 
     @Override
-    public User getUserById(UUID id) {
-        return userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("Usuário não encontrado."));
+    public List<UserSummary> searchUsers(String query, UUID after, int limit) {
+        return userSearchIndex.search(query, after, limit);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<UserSummary> action) {
+        try (Stream<UserSummary> users = userRepository.streamAllByOrderByIdAsc()) {
+            users.forEach(action);
+        }
+    }
+
+    @Override
+    public UserSummary getUserById(UUID id) {
+        return userCache.get(id, this::findSummaryById)
+                .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado."));
+    }
+
+    // For writes: they run in a transaction, so they must not wait on a cache load that is waiting for a connection.
+    private UserSummary getCurrentUser(UUID id) {
+        return userCache.peek(id, this::findSummaryById)
+                .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado."));
+    }
+
+    // Through the replica router, so a user written moments ago is read from the primary rather than cached
+    // as it was before the write, or as missing, from a replica that hasn't replayed it yet.
+    private Optional<UserSummary> findSummaryById(UUID id) {
+        ReplicaRoutingDataSource replicas = replicaRoutingDataSource.getIfAvailable();
+        if (replicas == null) return userRepository.findSummaryById(id);
+        return replicas.read(id, () -> userRepository.findSummaryById(id));
+    }
+
+    @Override
+    @Transactional
     public User saveUser(User newUser) {
-        if (existsUserByEmail(newUser.getEmail())) throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
-        return userRepository.save(newUser);
+        String email = newUser.getEmail();
+
+        if (!userEmailIndex.reserve(email)) throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
+
+        try {
+            User savedUser = userRepository.save(newUser);
+            userChangeOutbox.created(List.of(savedUser));
+            // Flushed here so a duplicate e-mail surfaces inside the try instead of at commit.
+            userRepository.flush();
+            userChangeCounter.increment();
+            afterCompletion(() -> userSearchIndex.put(savedUser), () -> userEmailIndex.release(email));
+            return savedUser;
+        } catch (DataIntegrityViolationException ex) {
+            userEmailIndex.release(email);
+            throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
+        } catch (RuntimeException ex) {
+            userEmailIndex.release(email);
+            throw ex;
+        }
+    }
+
+    @Override
+    public User enqueueUser(User newUser) {
+        String email = newUser.getEmail();
+
+        if (!userEmailIndex.reserve(email)) throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
+
+        newUser.setId(UuidV7.next());
+
+        try {
+            userWriteBehindQueue.enqueue(newUser);
+            return newUser;
+        } catch (RuntimeException ex) {
+            userEmailIndex.release(email);
+            throw ex;
+        }
+    }
+
+    @Override
+    public UserWriteStatus getUserWriteStatus(UUID id) {
+        UserWriteStatus status = userWriteBehindQueue.status(id);
+        if (status != null) return status;
+
+        getUserById(id);
+        return UserWriteStatus.persisted();
     }
 
     @Override
+    @Transactional
     public User updateUser(UUID id, User updatedUser) {
         if (updatedUser.getName() == null && updatedUser.getEmail() == null) {
             throw new UserFieldsNullException("Todos os campos estão nulos. Pelo menos um campo deve ser preenchido.");
         }
 
-        if(existsUserByEmail(updatedUser.getEmail())) throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
+        String name = updatedUser.getName();
+        String email = updatedUser.getEmail();
+
+        if (!userEmailIndex.reserve(email)) throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
+
+        try {
+            // Read in this transaction rather than from the cache: a cached copy can predate the last write,
+            // and its version would turn an update without If-Match into a spurious conflict.
+            UserSummary user = userRepository.findSummaryById(id)
+                    .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado."));
+            Long version = updatedUser.getVersion() != null ? updatedUser.getVersion() : user.getVersion();
 
-        User user = getUserById(id);
+            if (userRepository.updateUserById(id, name, email, version) == 0) {
+                if (updatedUser.getVersion() != null) {
+                    throw new UserPreconditionFailedException("A versão do usuário não corresponde ao cabeçalho If-Match.");
+                }
 
-        if (updatedUser.getName() != null) user.setName(updatedUser.getName());
-        if (updatedUser.getEmail() != null) user.setEmail(updatedUser.getEmail());
+                throw new UserVersionConflictException("O usuário foi alterado por outra requisição.");
+            }
 
-        return userRepository.save(user);
+            User savedUser = User.builder()
+                    .id(id)
+                    .name(name != null ? name : user.getName())
+                    .email(email != null ? email : user.getEmail())
+                    .version(version + 1)
+                    .build();
+
+            userChangeOutbox.updated(List.of(savedUser));
+            userChangeCounter.increment();
+            afterCompletion(() -> {
+                if (email != null) userEmailIndex.release(user.getEmail());
+                userSearchIndex.put(savedUser);
+            }, () -> userEmailIndex.release(email));
+            return savedUser;
+        } catch (DataIntegrityViolationException ex) {
+            userEmailIndex.release(email);
+            throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
+        } catch (RuntimeException ex) {
+            userEmailIndex.release(email);
+            throw ex;
+        } finally {
+            userCache.invalidate(id);
+        }
     }
 
     @Override
-    public void deleteUser(UUID id) {
-        userRepository.delete(getUserById(id));
+    @Transactional
+    public void deleteUser(UUID id, Long version) {
+        UserSummary user = getCurrentUser(id);
+
+        try {
+            if (version == null) {
+                if (userRepository.deleteUserById(id) == 0) throw new UserNotFoundException("Usuário não encontrado.");
+            } else if (userRepository.deleteUserByIdAndVersion(id, version) == 0) {
+                throw new UserPreconditionFailedException("A versão do usuário não corresponde ao cabeçalho If-Match.");
+            }
+
+            userChangeOutbox.deleted(id, version != null ? version : user.getVersion());
+            userChangeCounter.increment();
+            afterCompletion(() -> {
+                userEmailIndex.release(user.getEmail());
+                userSearchIndex.remove(id);
+            }, () -> { });
+        } finally {
+            userCache.invalidate(id);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<UserBatchResult> saveUsers(List<User> newUsers) {
+        List<UserBatchResult> results = new ArrayList<>(newUsers.size());
+        List<User> acceptedUsers = new ArrayList<>(newUsers.size());
+
+        for (User newUser : newUsers) {
+            if (userEmailIndex.reserve(newUser.getEmail())) {
+                acceptedUsers.add(newUser);
+                results.add(UserBatchResult.success(newUser));
+            } else {
+                results.add(UserBatchResult.failure(new UserEmailAlreadyExistsException("Esse e-mail já existe.")));
+            }
+        }
+
+        try {
+            userRepository.saveAll(acceptedUsers);
+            userChangeOutbox.created(acceptedUsers);
+            userRepository.flush();
+            userChangeCounter.increment();
+            afterCompletion(() -> acceptedUsers.forEach(userSearchIndex::put),
+                    () -> acceptedUsers.forEach(user -> userEmailIndex.release(user.getEmail())));
+        } catch (DataIntegrityViolationException ex) {
+            acceptedUsers.forEach(user -> userEmailIndex.release(user.getEmail()));
+            throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
+        } catch (RuntimeException ex) {
+            acceptedUsers.forEach(user -> userEmailIndex.release(user.getEmail()));
+            throw ex;
+        }
+
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public List<UserBatchResult> updateUsers(List<User> updatedUsers) {
+        Map<UUID, User> storedUsers = findUsersById(updatedUsers.stream().map(User::getId).toList());
+        List<UserBatchResult> results = new ArrayList<>(updatedUsers.size());
+        List<String> reservedEmails = new ArrayList<>();
+        List<String> previousEmails = new ArrayList<>();
+
+        for (User updatedUser : updatedUsers) {
+            User user = storedUsers.get(updatedUser.getId());
+            String email = updatedUser.getEmail();
+
+            if (updatedUser.getName() == null && email == null) {
+                results.add(UserBatchResult.failure(new UserFieldsNullException("Todos os campos estão nulos. Pelo menos um campo deve ser preenchido.")));
+            } else if (user == null) {
+                results.add(UserBatchResult.failure(new UserNotFoundException("Usuário não encontrado.")));
+            } else if (!userEmailIndex.reserve(email)) {
+                results.add(UserBatchResult.failure(new UserEmailAlreadyExistsException("Esse e-mail já existe.")));
+            } else {
+                if (updatedUser.getName() != null) user.setName(updatedUser.getName());
+
+                if (email != null) {
+                    reservedEmails.add(email);
+                    previousEmails.add(user.getEmail());
+                    user.setEmail(email);
+                }
+
+                results.add(UserBatchResult.success(user));
+            }
+        }
+
+        try {
+            userRepository.flush();
+        } catch (OptimisticLockingFailureException ex) {
+            reservedEmails.forEach(userEmailIndex::release);
+            throw new UserVersionConflictException("O usuário foi alterado por outra requisição.");
+        } catch (DataIntegrityViolationException ex) {
+            reservedEmails.forEach(userEmailIndex::release);
+            throw new UserEmailAlreadyExistsException("Esse e-mail já existe.");
+        } catch (RuntimeException ex) {
+            reservedEmails.forEach(userEmailIndex::release);
+            throw ex;
+        } finally {
+            storedUsers.keySet().forEach(userCache::invalidate);
+        }
+
+        List<User> savedUsers = results.stream()
+                .filter(UserBatchResult::isSuccess)
+                .map(UserBatchResult::getUser)
+                .toList();
+
+        // After the flush, so the recorded versions are the ones just written.
+        userChangeOutbox.updated(savedUsers);
+        userChangeCounter.increment();
+        afterCompletion(() -> {
+            previousEmails.forEach(userEmailIndex::release);
+            savedUsers.forEach(userSearchIndex::put);
+        }, () -> reservedEmails.forEach(userEmailIndex::release));
+
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public List<UserBatchResult> deleteUsers(List<UUID> ids) {
+        Map<UUID, User> storedUsers = findUsersById(ids);
+        List<UserBatchResult> results = new ArrayList<>(ids.size());
+        List<UUID> deletedIds = new ArrayList<>(storedUsers.size());
+
+        for (UUID id : ids) {
+            User user = storedUsers.remove(id);
+
+            if (user == null) {
+                results.add(UserBatchResult.failure(new UserNotFoundException("Usuário não encontrado.")));
+            } else {
+                deletedIds.add(id);
+                results.add(UserBatchResult.success(user));
+            }
+        }
+
+        try {
+            userRepository.deleteAllByIdInBatch(deletedIds);
+            results.stream()
+                    .filter(UserBatchResult::isSuccess)
+                    .forEach(result -> userChangeOutbox.deleted(result.getUser().getId(), result.getUser().getVersion()));
+        } finally {
+            deletedIds.forEach(userCache::invalidate);
+        }
+
+        userChangeCounter.increment();
+        afterCompletion(() -> {
+            deletedIds.forEach(userSearchIndex::remove);
+            results.stream()
+                    .filter(UserBatchResult::isSuccess)
+                    .forEach(result -> userEmailIndex.release(result.getUser().getEmail()));
+        }, () -> { });
+
+        return results;
     }
 
     @Override
     public Boolean existsUserByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return userEmailIndex.contains(email);
+    }
+
+    @Override
+    public CompletableFuture<User> authenticate(String email, String rawPassword) {
+        User user = userRepository.findByEmail(email).orElseThrow(() -> new UserInvalidCredentialsException("E-mail ou senha inválidos."));
+
+        // Off the hashing pool: the rehash write waits on a connection, which would stall the hashes queued behind it.
+        return userPasswordHasher.verify(rawPassword, user.getPassword()).thenApplyAsync(verification -> {
+            if (!verification.matches()) throw new UserInvalidCredentialsException("E-mail ou senha inválidos.");
+
+            // Logging in is the only time the raw password is at hand, so it is when a legacy hash is upgraded.
+            if (verification.rehashedPassword() != null) {
+                userRepository.updatePasswordById(user.getId(), verification.rehashedPassword(), user.getPassword());
+            }
+
+            return user;
+        }, applicationTaskExecutor);
+    }
+
+    private Map<UUID, User> findUsersById(List<UUID> ids) {
+        return userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    // The indexes must describe committed rows: changed before the commit, a rollback would leave them
+    // pointing at rows that never existed and releasing e-mails that are still taken.
+    private static void afterCompletion(Runnable committed, Runnable rolledBack) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) committed.run();
+                else rolledBack.run();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.api.controller;
+
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.dto.user.UserUpdateRequestDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive"
+        }
+)
+@ActiveProfiles("reactive")
+class ReactiveUserControllerImplContractTest extends UserControllerContractTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Writes go through R2DBC, so only this service records them in the outbox; the MVC one gets it from JPA.
+    @Test
+    void writes_ShouldBeRecordedInOutbox_WhenMadeThroughR2dbc() {
+        UserRequestDto dto = new UserRequestDto("Test", UUID.randomUUID() + "@gmail.com", "12345678");
+        UUID id = restTemplate.postForEntity("/users", dto, UserResponseDto.class).getBody().getId();
+
+        restTemplate.exchange("/users/" + id, HttpMethod.PATCH, new HttpEntity<>(new UserUpdateRequestDto("Novo", null)), UserResponseDto.class);
+        restTemplate.delete("/users/" + id);
+
+        List<String> types = jdbcTemplate.queryForList("select type from user_changes where user_id = ? order by version, id", String.class, id);
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), types);
+    }
+}
@@ -0,0 +1,70 @@
+package com.api.changes;
+
+import com.api.entity.User;
+import com.api.entity.UserChangeType;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link UserChangeOutbox} for writes made through R2DBC: the rows go into the same outbox table, in the
+ * caller's reactive transaction, and {@link UserChangeRelay} publishes them like any other.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReactiveUserChangeOutbox {
+    // The sequence value is one Hibernate's pooled generator would take as the top of a block; the rest of the
+    // block is never handed out, so these ids can't collide with the ones the JPA outbox assigns. The cast is
+    // for H2, whose R2DBC driver binds strings as CLOBs, which it won't convert to the enum column.
+    private static final String INSERT = "insert into user_changes (id, type, user_id, name, email, version, changed_at) " +
+            "values (next value for user_changes_seq, cast(:type as varchar), :userId, :name, :email, :version, :changedAt)";
+
+    private final DatabaseClient databaseClient;
+    private final UserChangeRelay userChangeRelay;
+
+    public Mono<Void> created(Collection<User> users) {
+        return append(UserChangeType.CREATED, users);
+    }
+
+    public Mono<Void> updated(Collection<User> users) {
+        return append(UserChangeType.UPDATED, users);
+    }
+
+    public Mono<Void> deleted(UUID id, Long version) {
+        return append(UserChangeType.DELETED, List.of(User.builder().id(id).version(version).build()));
+    }
+
+    private Mono<Void> append(UserChangeType type, Collection<User> users) {
+        Instant now = Instant.now();
+
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .doOnNext(synchronizations -> synchronizations.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return Mono.fromRunnable(userChangeRelay::wakeUp);
+                    }
+                }))
+                .thenMany(Flux.fromIterable(users))
+                .concatMap(user -> databaseClient.sql(INSERT)
+                        .bind("type", type.name())
+                        .bind("userId", user.getId())
+                        .bind("name", Parameters.in(R2dbcType.VARCHAR, user.getName()))
+                        .bind("email", Parameters.in(R2dbcType.VARCHAR, user.getEmail()))
+                        .bind("version", Parameters.in(R2dbcType.BIGINT, user.getVersion()))
+                        .bind("changedAt", now)
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+}
@@ -0,0 +1,62 @@
+package com.api.controller;
+
+import com.api.dto.user.UserPageResponseDto;
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.dto.user.UserUpdateRequestDto;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RequestMapping("/users")
+public interface ReactiveUserController {
+    @GetMapping
+    Mono<ResponseEntity<UserPageResponseDto>> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            ServerWebExchange exchange
+    );
+
+    @GetMapping("/search")
+    Mono<ResponseEntity<UserPageResponseDto>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    );
+
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    Flux<UserResponseDto> streamUsers();
+
+    @GetMapping("/{id}")
+    Mono<ResponseEntity<UserResponseDto>> getUserById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    );
+
+    @PostMapping
+    Mono<ResponseEntity<UserResponseDto>> saveUser(
+            @Valid @RequestBody UserRequestDto dto,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    );
+
+    @PatchMapping("/{id}")
+    Mono<ResponseEntity<UserResponseDto>> updateUser(
+            @PathVariable UUID id,
+            @RequestBody UserUpdateRequestDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    );
+
+    @DeleteMapping("/{id}")
+    Mono<ResponseEntity<Void>> deleteUser(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    );
+}
@@ -0,0 +1,156 @@
+package com.api.controller.impl;
+
+import com.api.cache.UserChangeCounter;
+import com.api.controller.ReactiveUserController;
+import com.api.dto.user.UserCursor;
+import com.api.dto.user.UserETag;
+import com.api.dto.user.UserMapper;
+import com.api.dto.user.UserPageResponseDto;
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.dto.user.UserUpdateRequestDto;
+import com.api.entity.User;
+import com.api.entity.UserSummary;
+import com.api.exception.user.UserEmailAlreadyExistsException;
+import com.api.exception.user.UserPageInvalidException;
+import com.api.exception.user.UserPreconditionFailedException;
+import com.api.exception.user.UserSearchInvalidException;
+import com.api.password.UserPasswordHasher;
+import com.api.service.ReactiveUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserControllerImpl implements ReactiveUserController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final ReactiveUserService userService;
+    private final UserChangeCounter userChangeCounter;
+    private final UserPasswordHasher userPasswordHasher;
+
+    @Override
+    public Mono<ResponseEntity<UserPageResponseDto>> getUsers(String cursor, int size, ServerWebExchange exchange) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new UserPageInvalidException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+
+        String eTag = UserETag.weak(userChangeCounter.current());
+
+        if (exchange.checkNotModified(eTag)) return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+
+        return userService.getUsers(UserCursor.decode(cursor), size + 1)
+                .collectList()
+                .map(users -> {
+                    if (users.isEmpty()) return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+
+                    boolean hasNext = users.size() > size;
+                    List<UserSummary> page = hasNext ? users.subList(0, size) : users;
+
+                    List<UserResponseDto> userResponseDto = page.stream()
+                            .map(UserMapper::toUserResponseDto)
+                            .toList();
+
+                    String nextCursor = hasNext ? UserCursor.encode(page.get(page.size() - 1).getId()) : null;
+
+                    return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(new UserPageResponseDto(userResponseDto, nextCursor));
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<UserPageResponseDto>> searchUsers(String q, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new UserPageInvalidException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            throw new UserSearchInvalidException("A pesquisa deve ter entre 1 e " + MAX_QUERY_LENGTH + " caracteres.");
+        }
+
+        return userService.searchUsers(q, UserCursor.decode(cursor), size + 1)
+                .collectList()
+                .map(users -> {
+                    if (users.isEmpty()) return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+
+                    boolean hasNext = users.size() > size;
+                    List<UserSummary> page = hasNext ? users.subList(0, size) : users;
+
+                    List<UserResponseDto> userResponseDto = page.stream()
+                            .map(UserMapper::toUserResponseDto)
+                            .toList();
+
+                    String nextCursor = hasNext ? UserCursor.encode(page.get(page.size() - 1).getId()) : null;
+
+                    return ResponseEntity.status(HttpStatus.OK).body(new UserPageResponseDto(userResponseDto, nextCursor));
+                });
+    }
+
+    @Override
+    public Flux<UserResponseDto> streamUsers() {
+        return userService.streamUsers().map(UserMapper::toUserResponseDto);
+    }
+
+    @Override
+    public Mono<ResponseEntity<UserResponseDto>> getUserById(UUID id, String accept) {
+        return userService.getUserById(id)
+                .map(user -> ResponseEntity.status(HttpStatus.OK).eTag(UserETag.of(user.getVersion(), accept)).body(UserMapper.toUserResponseDto(user)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<UserResponseDto>> saveUser(UserRequestDto dto, String accept) {
+        // Checked before hashing so a duplicate sign-up doesn't cost a BCrypt round; saveUser still enforces it.
+        return userService.existsUserByEmail(dto.getEmail())
+                .flatMap(exists -> exists
+                        ? Mono.<String>error(new UserEmailAlreadyExistsException("Esse e-mail já existe."))
+                        : Mono.fromFuture(() -> userPasswordHasher.hash(dto.getPassword())))
+                .flatMap(passwordHash -> userService.saveUser(UserMapper.toUser(dto, passwordHash)))
+                .map(user -> ResponseEntity.status(HttpStatus.CREATED).eTag(UserETag.of(user.getVersion(), accept)).body(UserMapper.toUserResponseDto(user)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<UserResponseDto>> updateUser(UUID id, UserUpdateRequestDto dto, String ifMatch, String accept) {
+        User updatedUser = UserMapper.toUser(dto);
+
+        return expectedVersion(id, ifMatch)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(version -> {
+                    updatedUser.setVersion(version.orElse(null));
+                    return userService.updateUser(id, updatedUser);
+                })
+                .map(user -> ResponseEntity.status(HttpStatus.OK).eTag(UserETag.of(user.getVersion(), accept)).body(UserMapper.toUserResponseDto(user)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteUser(UUID id, String ifMatch) {
+        return expectedVersion(id, ifMatch)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(version -> userService.deleteUser(id, version.orElse(null)))
+                .then(Mono.just(ResponseEntity.status(HttpStatus.NO_CONTENT).build()));
+    }
+
+    // Empty when there is no precondition. See UserControllerImpl.expectedVersion.
+    private Mono<Long> expectedVersion(UUID id, String ifMatch) {
+        List<Long> versions = UserETag.parseIfMatch(ifMatch);
+        if (versions == null) return Mono.empty();
+        if (versions.size() == 1) return Mono.just(versions.get(0));
+
+        return userService.getUserById(id)
+                .map(UserSummary::getVersion)
+                .filter(versions::contains)
+                .switchIfEmpty(Mono.error(() -> new UserPreconditionFailedException("A versão do usuário não corresponde ao cabeçalho If-Match.")));
+    }
+}
@@ -0,0 +1,119 @@
+package com.api.repository;
+
+import com.api.entity.User;
+import com.api.entity.UserSummary;
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+    private final DatabaseClient databaseClient;
+
+    // Reads served to clients select summaries, like UserRepository's projections, so no password hash
+    // is loaded for them.
+    public Flux<UserSummary> findAllByOrderByIdAsc(int limit) {
+        return databaseClient.sql("select id, name, email, version from users order by id limit :limit")
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUserSummary)
+                .all();
+    }
+
+    public Flux<UserSummary> findByIdGreaterThanOrderByIdAsc(UUID id, int limit) {
+        return databaseClient.sql("select id, name, email, version from users where id > :id order by id limit :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUserSummary)
+                .all();
+    }
+
+    public Flux<UserSummary> streamAllByOrderByIdAsc() {
+        return databaseClient.sql("select id, name, email, version from users order by id")
+                .map(ReactiveUserRepository::toUserSummary)
+                .all();
+    }
+
+    public Mono<UserSummary> findSummaryById(UUID id) {
+        return databaseClient.sql("select id, name, email, version from users where id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUserSummary)
+                .one();
+    }
+
+    public Mono<User> insert(User user) {
+        return databaseClient.sql("insert into users (id, name, email, password, version) values (:id, :name, :email, :password, 0)")
+                .bind("id", user.getId())
+                .bind("name", text(user.getName()))
+                .bind("email", text(user.getEmail()))
+                .bind("password", text(user.getPassword()))
+                .fetch()
+                .rowsUpdated()
+                .then(Mono.fromSupplier(() -> {
+                    user.setVersion(0L);
+                    return user;
+                }));
+    }
+
+    public Mono<User> update(User user) {
+        return databaseClient.sql("update users set name = :name, email = :email, version = version + 1 where id = :id and version = :version")
+                .bind("id", user.getId())
+                .bind("name", text(user.getName()))
+                .bind("email", text(user.getEmail()))
+                .bind("version", user.getVersion())
+                .fetch()
+                .rowsUpdated()
+                .filter(rows -> rows > 0)
+                .map(rows -> {
+                    user.setVersion(user.getVersion() + 1);
+                    return user;
+                });
+    }
+
+    public Mono<Long> deleteByIdAndVersion(UUID id, Long version) {
+        return databaseClient.sql("delete from users where id = :id and version = :version")
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Parameter text(String value) {
+        return Parameters.in(R2dbcType.VARCHAR, value);
+    }
+
+    private static UserSummary toUserSummary(Readable row) {
+        return new Summary(row.get("id", UUID.class), row.get("name", String.class), row.get("email", String.class),
+                row.get("version", Long.class));
+    }
+
+    private record Summary(UUID id, String name, String email, Long version) implements UserSummary {
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public Long getVersion() {
+            return version;
+        }
+    }
+}
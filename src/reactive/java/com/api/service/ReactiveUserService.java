@@ -0,0 +1,19 @@
+package com.api.service;
+
+import com.api.entity.User;
+import com.api.entity.UserSummary;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveUserService {
+    Flux<UserSummary> getUsers(UUID after, int limit);
+    Flux<UserSummary> searchUsers(String query, UUID after, int limit);
+    Flux<UserSummary> streamUsers();
+    Mono<UserSummary> getUserById(UUID id);
+    Mono<User> saveUser(User newUser);
+    Mono<User> updateUser(UUID id, User updatedUser);
+    Mono<Void> deleteUser(UUID id, Long version);
+    Mono<Boolean> existsUserByEmail(String email);
+}
@@ -0,0 +1,179 @@
+package com.api.service.impl;
+
+import com.api.cache.UserCache;
+import com.api.cache.UserChangeCounter;
+import com.api.changes.ReactiveUserChangeOutbox;
+import com.api.entity.User;
+import com.api.entity.UserSummary;
+import com.api.entity.id.UuidV7;
+import com.api.exception.user.UserEmailAlreadyExistsException;
+import com.api.exception.user.UserFieldsNullException;
+import com.api.exception.user.UserNotFoundException;
+import com.api.exception.user.UserPreconditionFailedException;
+import com.api.exception.user.UserVersionConflictException;
+import com.api.index.UserEmailIndex;
+import com.api.index.UserSearchIndex;
+import com.api.repository.ReactiveUserRepository;
+import com.api.repository.UserRepository;
+import com.api.service.ReactiveUserService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes go through R2DBC, past Hibernate, so what Hibernate would have done on commit is done here instead:
+ * the change is recorded in the outbox in the same transaction, and the cached user, its second-level cache
+ * entry and the cached list pages are dropped once it commits.
+ */
+@Service
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+    private final ReactiveUserRepository userRepository;
+    private final UserEmailIndex userEmailIndex;
+    private final UserSearchIndex userSearchIndex;
+    private final UserChangeCounter userChangeCounter;
+    private final UserCache userCache;
+    private final ReactiveUserChangeOutbox userChangeOutbox;
+    private final TransactionalOperator transactionalOperator;
+    private final Cache secondLevelCache;
+
+    public ReactiveUserServiceImpl(ReactiveUserRepository userRepository, UserEmailIndex userEmailIndex, UserSearchIndex userSearchIndex,
+                                   UserChangeCounter userChangeCounter, UserCache userCache, ReactiveUserChangeOutbox userChangeOutbox,
+                                   TransactionalOperator transactionalOperator, EntityManagerFactory entityManagerFactory) {
+        this.userRepository = userRepository;
+        this.userEmailIndex = userEmailIndex;
+        this.userSearchIndex = userSearchIndex;
+        this.userChangeCounter = userChangeCounter;
+        this.userCache = userCache;
+        this.userChangeOutbox = userChangeOutbox;
+        this.transactionalOperator = transactionalOperator;
+        this.secondLevelCache = entityManagerFactory.getCache();
+    }
+
+    @Override
+    public Flux<UserSummary> getUsers(UUID after, int limit) {
+        if (after == null) return userRepository.findAllByOrderByIdAsc(limit);
+        return userRepository.findByIdGreaterThanOrderByIdAsc(after, limit);
+    }
+
+    @Override
+    public Flux<UserSummary> searchUsers(String query, UUID after, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(userSearchIndex.search(query, after, limit)));
+    }
+
+    @Override
+    public Flux<UserSummary> streamUsers() {
+        return userRepository.streamAllByOrderByIdAsc();
+    }
+
+    @Override
+    public Mono<UserSummary> getUserById(UUID id) {
+        return userRepository.findSummaryById(id)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("Usuário não encontrado.")));
+    }
+
+    @Override
+    public Mono<User> saveUser(User newUser) {
+        String email = newUser.getEmail();
+
+        if (!userEmailIndex.reserve(email)) return Mono.error(new UserEmailAlreadyExistsException("Esse e-mail já existe."));
+
+        newUser.setId(UuidV7.next());
+
+        return userRepository.insert(newUser)
+                .flatMap(savedUser -> userChangeOutbox.created(List.of(savedUser)).thenReturn(savedUser))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(savedUser -> {
+                    userSearchIndex.put(savedUser);
+                    evict(savedUser.getId());
+                    userChangeCounter.increment();
+                })
+                .onErrorMap(DataIntegrityViolationException.class, ex -> new UserEmailAlreadyExistsException("Esse e-mail já existe."))
+                .doOnError(ex -> userEmailIndex.release(email));
+    }
+
+    @Override
+    public Mono<User> updateUser(UUID id, User updatedUser) {
+        if (updatedUser.getName() == null && updatedUser.getEmail() == null) {
+            return Mono.error(new UserFieldsNullException("Todos os campos estão nulos. Pelo menos um campo deve ser preenchido."));
+        }
+
+        String email = updatedUser.getEmail();
+
+        if (!userEmailIndex.reserve(email)) return Mono.error(new UserEmailAlreadyExistsException("Esse e-mail já existe."));
+
+        // Read in the update's transaction rather than cached, as UserServiceImpl.updateUser does.
+        return getUserById(id)
+                .flatMap(user -> {
+                    User savedUser = User.builder()
+                            .id(id)
+                            .name(updatedUser.getName() != null ? updatedUser.getName() : user.getName())
+                            .email(email != null ? email : user.getEmail())
+                            .version(updatedUser.getVersion() != null ? updatedUser.getVersion() : user.getVersion())
+                            .build();
+
+                    return userRepository.update(savedUser)
+                            .switchIfEmpty(Mono.error(() -> versionMismatch(updatedUser.getVersion())))
+                            .flatMap(updated -> userChangeOutbox.updated(List.of(updated)).thenReturn(Tuples.of(updated, user)));
+                })
+                .as(transactionalOperator::transactional)
+                .map(saved -> {
+                    if (email != null) userEmailIndex.release(saved.getT2().getEmail());
+                    userSearchIndex.put(saved.getT1());
+                    userChangeCounter.increment();
+                    return saved.getT1();
+                })
+                .onErrorMap(DataIntegrityViolationException.class, ex -> new UserEmailAlreadyExistsException("Esse e-mail já existe."))
+                .doOnError(ex -> userEmailIndex.release(email))
+                .doFinally(signal -> evict(id));
+    }
+
+    @Override
+    public Mono<Void> deleteUser(UUID id, Long version) {
+        return getUserById(id)
+                .flatMap(user -> {
+                    Long expectedVersion = version != null ? version : user.getVersion();
+
+                    return userRepository.deleteByIdAndVersion(id, expectedVersion)
+                            .filter(rows -> rows > 0)
+                            .switchIfEmpty(Mono.error(() -> versionMismatch(version)))
+                            .then(userChangeOutbox.deleted(id, expectedVersion))
+                            .thenReturn(user);
+                })
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(user -> {
+                    userEmailIndex.release(user.getEmail());
+                    userSearchIndex.remove(id);
+                    userChangeCounter.increment();
+                })
+                .doFinally(signal -> evict(id))
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> existsUserByEmail(String email) {
+        return Mono.just(userEmailIndex.contains(email));
+    }
+
+    // Also after a failed update or delete, like UserServiceImpl's finally blocks: it may have failed on a stale copy.
+    private void evict(UUID id) {
+        userCache.invalidate(id);
+        secondLevelCache.evict(User.class, id);
+        secondLevelCache.unwrap(org.hibernate.Cache.class).evictQueryRegion(UserRepository.QUERY_CACHE_REGION);
+    }
+
+    private static RuntimeException versionMismatch(Long expectedVersion) {
+        if (expectedVersion != null) {
+            return new UserPreconditionFailedException("A versão do usuário não corresponde ao cabeçalho If-Match.");
+        }
+
+        return new UserVersionConflictException("O usuário foi alterado por outra requisição.");
+    }
+}
@@ -0,0 +1,124 @@
+package com.api.cache;
+
+import com.api.ApiApplication;
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.dto.user.UserUpdateRequestDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Two nodes in one JVM sharing one database, as they would behind a load balancer. */
+class UserCacheInvalidatorTest {
+    private static final String DATASOURCE = "--spring.datasource.url=jdbc:h2:mem:coherence;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static TestRestTemplate clientA;
+    private static TestRestTemplate clientB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = node();
+        nodeB = node("--spring.jpa.hibernate.ddl-auto=none");
+        clientA = client(nodeA);
+        clientB = client(nodeB);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    private static ConfigurableApplicationContext node(String... args) {
+        String[] common = {DATASOURCE, "--server.port=0", "--api.users.changes.poll-interval=20ms", "--api.users.rate-limit.enabled=false"};
+        String[] all = new String[common.length + args.length];
+        System.arraycopy(common, 0, all, 0, common.length);
+        System.arraycopy(args, 0, all, common.length, args.length);
+
+        return new SpringApplicationBuilder(ApiApplication.class).run(all);
+    }
+
+    private static TestRestTemplate client(ConfigurableApplicationContext node) {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        return new TestRestTemplate(new RestTemplateBuilder().rootUri("http://localhost:" + port));
+    }
+
+    private static <T> T eventually(Supplier<T> read, Predicate<T> condition) throws InterruptedException {
+        T value = read.get();
+
+        for (int i = 0; i < 100 && !condition.test(value); i++) {
+            Thread.sleep(50);
+            value = read.get();
+        }
+
+        return value;
+    }
+
+    private static UserResponseDto createUser(TestRestTemplate client) {
+        UserRequestDto dto = new UserRequestDto("Test", UUID.randomUUID() + "@gmail.com", "12345678");
+        return client.postForEntity("/users", dto, UserResponseDto.class).getBody();
+    }
+
+    @Test
+    void getUserById_ShouldReturnUpdatedUser_WhenUpdatedOnAnotherNode() throws InterruptedException {
+        UserResponseDto user = createUser(clientA);
+        // Cached on node B before the update.
+        assertEquals("Test", clientB.getForObject("/users/" + user.getId(), UserResponseDto.class).getNome());
+
+        clientA.exchange("/users/" + user.getId(), HttpMethod.PATCH, new HttpEntity<>(new UserUpdateRequestDto("Novo", null)), UserResponseDto.class);
+
+        UserResponseDto seen = eventually(() -> clientB.getForObject("/users/" + user.getId(), UserResponseDto.class), found -> "Novo".equals(found.getNome()));
+        assertEquals("Novo", seen.getNome());
+    }
+
+    @Test
+    void getUserById_ShouldReturnNotFound_WhenDeletedOnAnotherNode() throws InterruptedException {
+        UserResponseDto user = createUser(clientA);
+        assertEquals(HttpStatus.OK, clientB.getForEntity("/users/" + user.getId(), String.class).getStatusCode());
+
+        clientA.delete("/users/" + user.getId());
+
+        ResponseEntity<String> seen = eventually(() -> clientB.getForEntity("/users/" + user.getId(), String.class),
+                response -> response.getStatusCode() == HttpStatus.NOT_FOUND);
+        assertEquals(HttpStatus.NOT_FOUND, seen.getStatusCode());
+    }
+
+    @Test
+    void searchUsers_ShouldFindUser_WhenCreatedOnAnotherNode() throws InterruptedException {
+        String name = "Coerente";
+        UserRequestDto dto = new UserRequestDto(name, UUID.randomUUID() + "@gmail.com", "12345678");
+        clientA.postForEntity("/users", dto, UserResponseDto.class);
+
+        String found = eventually(() -> clientB.getForObject("/users/search?q=" + name, String.class), body -> body != null && body.contains(name));
+        assertTrue(found != null && found.contains(name));
+    }
+
+    @Test
+    void apply_ShouldRecordInvalidationLatency() throws InterruptedException {
+        MeterRegistry registry = nodeB.getBean(MeterRegistry.class);
+        long before = registry.get("users.cache.invalidation").timer().count();
+
+        createUser(clientA);
+
+        long after = eventually(() -> registry.get("users.cache.invalidation").timer().count(), count -> count > before);
+        assertTrue(after > before);
+    }
+}
@@ -0,0 +1,67 @@
+package com.api.cache;
+
+import com.api.entity.UserSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+    private static UserSummary user(UUID id, String name) {
+        UserSummary user = mock(UserSummary.class);
+        lenient().when(user.getId()).thenReturn(id);
+        lenient().when(user.getName()).thenReturn(name);
+        return user;
+    }
+
+    @Test
+    void invalidateAndPeek_ShouldNotWait_WhenLoadIsInFlight() throws InterruptedException {
+        UserCache userCache = new UserCache(new UserCacheProperties());
+        UUID id = UUID.randomUUID();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread loader = new Thread(() -> userCache.get(id, key -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(user(key, "Old"));
+        }));
+        loader.start();
+        loading.await();
+
+        UserSummary fresh = user(id, "New");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            userCache.invalidate(id);
+            assertSame(fresh, userCache.peek(id, key -> Optional.of(fresh)).orElseThrow());
+        });
+
+        release.countDown();
+        loader.join();
+
+        // The load that raced the invalidation must not be cached.
+        assertEquals("New", userCache.get(id, key -> Optional.of(user(key, "New"))).orElseThrow().getName());
+    }
+
+    @Test
+    void get_ShouldLoadOnce_WhenCalledRepeatedly() {
+        UserCache userCache = new UserCache(new UserCacheProperties());
+        UUID id = UUID.randomUUID();
+
+        userCache.get(id, key -> Optional.of(user(key, "Test")));
+        Optional<UserSummary> cached = userCache.get(id, key -> fail("Loaded twice"));
+
+        assertEquals("Test", cached.orElseThrow().getName());
+        assertEquals(1, userCache.stats().hitCount());
+        assertEquals(1, userCache.stats().missCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.api.changes;
+
+import com.api.entity.UserChange;
+import com.api.entity.UserChangeType;
+import com.api.exception.user.UserChangesExpiredException;
+import com.api.repository.UserChangeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangeFeedTest {
+    @Mock
+    private UserChangeRepository userChangeRepository;
+
+    private UserChangeFeed newFeed() {
+        return new UserChangeFeed(userChangeRepository, new TaskExecutorAdapter(new SyncTaskExecutor()));
+    }
+
+    private static List<UserChange> changes(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(offset -> UserChange.builder().offset(offset).type(UserChangeType.CREATED).userId(UUID.randomUUID()).build())
+                .toList();
+    }
+
+    @Test
+    void read_ShouldServeRecentChangesFromMemory() {
+        UserChangeFeed feed = newFeed();
+        feed.reset(10, 1);
+        feed.publish(changes(11, 15));
+
+        assertEquals(List.of(13L, 14L), feed.read(12, 2).stream().map(UserChange::getOffset).toList());
+        assertTrue(feed.read(15, 10).isEmpty());
+        verifyNoInteractions(userChangeRepository);
+    }
+
+    @Test
+    void read_ShouldQueryRepository_WhenOffsetIsOlderThanMemory() {
+        UserChangeFeed feed = newFeed();
+        feed.reset(10, 1);
+        feed.publish(changes(11, 15));
+
+        when(userChangeRepository.findByOffsetGreaterThanOrderByOffsetAsc(3L, Limit.of(2))).thenReturn(changes(4, 5));
+
+        assertEquals(List.of(4L, 5L), feed.read(3, 2).stream().map(UserChange::getOffset).toList());
+    }
+
+    @Test
+    void read_ShouldThrowUserChangesExpiredException_WhenOffsetWasPruned() {
+        UserChangeFeed feed = newFeed();
+        feed.reset(20, 8);
+
+        assertThrows(UserChangesExpiredException.class, () -> feed.read(5, 10));
+        assertDoesNotThrow(() -> feed.read(7, 10));
+    }
+
+    @Test
+    void subscribe_ShouldDeliverPublishedChanges_UntilListenerStops() {
+        UserChangeFeed feed = newFeed();
+        feed.reset(0, 0);
+        List<Long> received = new ArrayList<>();
+
+        feed.subscribe(0, 10, changes -> {
+            changes.forEach(change -> received.add(change.getOffset()));
+            return received.size() < 3;
+        });
+        feed.publish(changes(1, 2));
+        feed.publish(changes(3, 3));
+        feed.publish(changes(4, 4));
+
+        assertEquals(List.of(1L, 2L, 3L), received);
+    }
+}
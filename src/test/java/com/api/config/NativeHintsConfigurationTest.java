@@ -0,0 +1,32 @@
+package com.api.config;
+
+import com.api.dto.user.UserPageResponseDto;
+import com.api.entity.id.AssignableUuidGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.ReflectiveRuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsConfigurationTest {
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registerHints_ShouldRegisterIdGeneratorAndJournalEntry() {
+        new NativeHintsConfiguration.UserRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AssignableUuidGenerator.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of("com.api.queue.UserWriteJournal$Entry")).test(hints));
+    }
+
+    @Test
+    void registerReflectionForBinding_ShouldRegisterResponseDtos() {
+        new ReflectiveRuntimeHintsRegistrar().registerRuntimeHints(hints, NativeHintsConfiguration.class);
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserPageResponseDto.class).test(hints));
+    }
+}
@@ -0,0 +1,435 @@
+package com.api.controller;
+
+import com.api.dto.user.UserPageResponseDto;
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.dto.user.UserUpdateRequestDto;
+import com.api.exception.ExceptionResponse;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@AutoConfigureObservability
+abstract class UserControllerContractTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    private UserResponseDto createUser() {
+        String email = UUID.randomUUID() + "@gmail.com";
+        UserRequestDto dto = new UserRequestDto("Test", email, "12345678");
+        return restTemplate.postForEntity("/users", dto, UserResponseDto.class).getBody();
+    }
+
+    private <T> ResponseEntity<T> patch(UUID id, UserUpdateRequestDto dto, Class<T> type) {
+        return restTemplate.exchange("/users/" + id, HttpMethod.PATCH, new HttpEntity<>(dto), type);
+    }
+
+    private <T> ResponseEntity<T> getAccepting(String url, MediaType mediaType, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(mediaType));
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+    }
+
+    private <T> ResponseEntity<T> getIfNoneMatch(String url, String eTag, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+    }
+
+    private <T> ResponseEntity<T> exchangeIfMatch(UUID id, HttpMethod method, Object body, String eTag, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(eTag);
+        return restTemplate.exchange("/users/" + id, method, new HttpEntity<>(body, headers), type);
+    }
+
+    @Nested
+    class getUsersTests {
+        @Test
+        void getUsers_ShouldReturnUsers_WhenUsersExist() {
+            UserResponseDto user = createUser();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+            ResponseEntity<UserResponseDto[]> response = restTemplate.exchange("/users/stream", HttpMethod.GET, new HttpEntity<>(headers), UserResponseDto[].class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(Arrays.asList(response.getBody()).contains(user));
+        }
+
+        @Test
+        void getUsers_ShouldNotExposePassword_WhenUsersAreRead() {
+            UserResponseDto user = createUser();
+
+            for (String url : List.of("/users?size=100", "/users/stream", "/users/" + user.getId())) {
+                String body = getAccepting(url, MediaType.APPLICATION_JSON, String.class).getBody();
+
+                assertFalse(body.contains("password"), url);
+                assertFalse(body.contains("$2a$"), url);
+            }
+        }
+
+        @Test
+        void getUsers_ShouldReturnPage_WhenSizeIsValid() {
+            createUser();
+
+            ResponseEntity<UserPageResponseDto> response = restTemplate.getForEntity("/users?size=1", UserPageResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(1, response.getBody().getContent().size());
+        }
+
+        @Test
+        void getUsers_ShouldReturnNotModified_WhenNoUserChanged() {
+            createUser();
+
+            ResponseEntity<UserPageResponseDto> first = restTemplate.getForEntity("/users?size=1", UserPageResponseDto.class);
+            ResponseEntity<UserPageResponseDto> second = getIfNoneMatch("/users?size=1", first.getHeaders().getETag(), UserPageResponseDto.class);
+
+            assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+            assertNull(second.getBody());
+        }
+
+        @Test
+        void getUsers_ShouldReturnUsers_WhenUserChangedSinceETag() {
+            createUser();
+
+            ResponseEntity<UserPageResponseDto> first = restTemplate.getForEntity("/users?size=1", UserPageResponseDto.class);
+            createUser();
+            ResponseEntity<UserPageResponseDto> second = getIfNoneMatch("/users?size=1", first.getHeaders().getETag(), UserPageResponseDto.class);
+
+            assertEquals(HttpStatus.OK, second.getStatusCode());
+            assertNotEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        }
+
+        @Test
+        void getUsers_ShouldCompressPage_WhenGzipIsAccepted() throws Exception {
+            for (int i = 0; i < 20; i++) createUser();
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users?size=20"))
+                    .header("Accept", "application/json")
+                    .header("Accept-Encoding", "gzip")
+                    .build();
+            HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+            assertEquals(200, response.statusCode());
+            assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+            assertTrue(response.headers().firstValue("ETag").orElse("").startsWith("W/"));
+        }
+
+        @Test
+        void getUsers_ShouldReturnCbor_WhenCborIsAccepted() {
+            createUser();
+
+            ResponseEntity<UserPageResponseDto> response = getAccepting("/users?size=1", MediaType.APPLICATION_CBOR, UserPageResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(MediaType.APPLICATION_CBOR, response.getHeaders().getContentType());
+            assertEquals(1, response.getBody().getContent().size());
+        }
+
+        @Test
+        void getUsers_ShouldReturnBadRequest_WhenSizeIsOutOfRange() {
+            ResponseEntity<ExceptionResponse> response = restTemplate.getForEntity("/users?size=0", ExceptionResponse.class);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        }
+    }
+
+    @Nested
+    class searchUsersTests {
+        @Test
+        void searchUsers_ShouldReturnUser_WhenQueryIsEmailPrefix() {
+            UserResponseDto user = createUser();
+            String prefix = user.getEmail().substring(0, 8);
+
+            ResponseEntity<UserPageResponseDto> response = restTemplate.getForEntity("/users/search?q=" + prefix, UserPageResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(response.getBody().getContent().contains(user));
+        }
+
+        @Test
+        void searchUsers_ShouldReturnUpdatedUser_WhenNameChanged() {
+            UserResponseDto user = createUser();
+            String tag = user.getId().toString().substring(24);
+            patch(user.getId(), new UserUpdateRequestDto("Zuleica " + tag, null), UserResponseDto.class);
+
+            ResponseEntity<UserPageResponseDto> response = restTemplate.getForEntity("/users/search?q=zuleika " + tag, UserPageResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(List.of(user.getId()), response.getBody().getContent().stream().map(UserResponseDto::getId).toList());
+        }
+
+        @Test
+        void searchUsers_ShouldReturnNoContent_WhenUserWasDeleted() {
+            UserResponseDto user = createUser();
+            restTemplate.delete("/users/" + user.getId());
+
+            ResponseEntity<UserPageResponseDto> response = restTemplate.getForEntity("/users/search?q=" + user.getEmail(), UserPageResponseDto.class);
+
+            assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        }
+
+        @Test
+        void searchUsers_ShouldReturnBadRequest_WhenQueryIsBlank() {
+            ResponseEntity<ExceptionResponse> response = restTemplate.getForEntity("/users/search?q= ", ExceptionResponse.class);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        }
+    }
+
+    @Nested
+    class getUserByIdTests {
+        @Test
+        void getUserById_ShouldReturnNotFound_WhenUserDoesNotExist() {
+            ResponseEntity<ExceptionResponse> response = restTemplate.getForEntity("/users/" + UUID.randomUUID(), ExceptionResponse.class);
+
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+            assertEquals("Usuário não encontrado.", response.getBody().getDetail());
+        }
+
+        @Test
+        void getUserById_ShouldReturnUser_WhenUserExists() {
+            UserResponseDto user = createUser();
+
+            ResponseEntity<UserResponseDto> response = restTemplate.getForEntity("/users/" + user.getId(), UserResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(user, response.getBody());
+        }
+
+        @Test
+        void getUserById_ShouldReturnNotModified_WhenETagMatches() {
+            UserResponseDto user = createUser();
+
+            ResponseEntity<UserResponseDto> first = restTemplate.getForEntity("/users/" + user.getId(), UserResponseDto.class);
+            ResponseEntity<UserResponseDto> second = getIfNoneMatch("/users/" + user.getId(), first.getHeaders().getETag(), UserResponseDto.class);
+
+            assertEquals("\"0\"", first.getHeaders().getETag());
+            assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+            assertNull(second.getBody());
+        }
+
+        @Test
+        void getUserById_ShouldReturnCbor_WhenCborIsAccepted() {
+            UserResponseDto user = createUser();
+
+            ResponseEntity<UserResponseDto> response = getAccepting("/users/" + user.getId(), MediaType.APPLICATION_CBOR, UserResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(MediaType.APPLICATION_CBOR, response.getHeaders().getContentType());
+            assertEquals("\"0-cbor\"", response.getHeaders().getETag());
+            assertEquals(user, response.getBody());
+        }
+
+        @Test
+        void getUserById_ShouldReturnCborError_WhenCborIsAccepted() {
+            ResponseEntity<ExceptionResponse> response = getAccepting("/users/" + UUID.randomUUID(), MediaType.APPLICATION_CBOR, ExceptionResponse.class);
+
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+            assertEquals(MediaType.APPLICATION_CBOR, response.getHeaders().getContentType());
+            assertEquals(404, response.getBody().getStatus());
+        }
+
+        @Test
+        void getUserById_ShouldReturnSmile_WhenSmileIsAccepted() {
+            UserResponseDto user = createUser();
+            MediaType smile = MediaType.valueOf("application/x-jackson-smile");
+
+            ResponseEntity<UserResponseDto> response = getAccepting("/users/" + user.getId(), smile, UserResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(smile, response.getHeaders().getContentType());
+            assertEquals(user, response.getBody());
+        }
+    }
+
+    @Nested
+    class saveUserTests {
+        @Test
+        void saveUser_ShouldReturnConflict_WhenEmailAlreadyExists() {
+            UserResponseDto user = createUser();
+            UserRequestDto dto = new UserRequestDto("Test", user.getEmail(), "12345678");
+
+            ResponseEntity<ExceptionResponse> response = restTemplate.postForEntity("/users", dto, ExceptionResponse.class);
+
+            assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+            assertEquals("Esse e-mail já existe.", response.getBody().getDetail());
+        }
+
+        @Test
+        void saveUser_ShouldReturnBadRequest_WhenBodyIsInvalid() {
+            UserRequestDto dto = new UserRequestDto("", "test", "");
+
+            ResponseEntity<ExceptionResponse> response = restTemplate.postForEntity("/users", dto, ExceptionResponse.class);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        }
+
+        @Test
+        void saveUser_ShouldSaveUser_WhenEmailDoesNotExist() {
+            String email = UUID.randomUUID() + "@gmail.com";
+            UserRequestDto dto = new UserRequestDto("Test", email, "12345678");
+
+            ResponseEntity<UserResponseDto> response = restTemplate.postForEntity("/users", dto, UserResponseDto.class);
+
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+            assertNotNull(response.getBody().getId());
+            assertEquals(email, response.getBody().getEmail());
+        }
+    }
+
+    @Nested
+    class updateUserTests {
+        @Test
+        void updateUser_ShouldReturnBadRequest_WhenAllUserFieldsAreNull() {
+            UserResponseDto user = createUser();
+
+            ResponseEntity<ExceptionResponse> response = patch(user.getId(), new UserUpdateRequestDto(null, null), ExceptionResponse.class);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+            assertEquals("Todos os campos estão nulos. Pelo menos um campo deve ser preenchido.", response.getBody().getDetail());
+        }
+
+        @Test
+        void updateUser_ShouldReturnNotFound_WhenUserDoesNotExist() {
+            ResponseEntity<ExceptionResponse> response = patch(UUID.randomUUID(), new UserUpdateRequestDto("Test", null), ExceptionResponse.class);
+
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        }
+
+        @Test
+        void updateUser_ShouldReturnConflict_WhenEmailAlreadyExists() {
+            UserResponseDto user = createUser();
+            UserResponseDto otherUser = createUser();
+
+            ResponseEntity<ExceptionResponse> response = patch(user.getId(), new UserUpdateRequestDto(null, otherUser.getEmail()), ExceptionResponse.class);
+
+            assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        }
+
+        @Test
+        void updateUser_ShouldUpdateUser_WhenUserExists() {
+            UserResponseDto user = createUser();
+            String email = UUID.randomUUID() + "@gmail.com";
+
+            ResponseEntity<UserResponseDto> response = patch(user.getId(), new UserUpdateRequestDto("Updated", email), UserResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("Updated", response.getBody().getNome());
+            assertEquals(email, response.getBody().getEmail());
+        }
+
+        @Test
+        void updateUser_ShouldReturnPreconditionFailed_WhenIfMatchIsStale() {
+            UserResponseDto user = createUser();
+            patch(user.getId(), new UserUpdateRequestDto("Updated", null), UserResponseDto.class);
+
+            ResponseEntity<ExceptionResponse> response = exchangeIfMatch(user.getId(), HttpMethod.PATCH, new UserUpdateRequestDto("Stale", null), "\"0\"", ExceptionResponse.class);
+
+            assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+            assertEquals("Updated", restTemplate.getForEntity("/users/" + user.getId(), UserResponseDto.class).getBody().getNome());
+        }
+
+        @Test
+        void updateUser_ShouldReturnNewETag_WhenIfMatchIsCurrent() {
+            UserResponseDto user = createUser();
+
+            ResponseEntity<UserResponseDto> response = exchangeIfMatch(user.getId(), HttpMethod.PATCH, new UserUpdateRequestDto("Updated", null), "\"0\"", UserResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("\"1\"", response.getHeaders().getETag());
+        }
+
+        @Test
+        void updateUser_ShouldUpdateUser_WhenIfMatchListsCurrentTag() {
+            UserResponseDto user = createUser();
+            patch(user.getId(), new UserUpdateRequestDto("Updated", null), UserResponseDto.class);
+
+            ResponseEntity<UserResponseDto> response = exchangeIfMatch(user.getId(), HttpMethod.PATCH, new UserUpdateRequestDto("Listed", null),
+                    "\"0\", \"1-cbor\"", UserResponseDto.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("Listed", response.getBody().getNome());
+        }
+
+        @Test
+        void updateUser_ShouldReturnPreconditionFailed_WhenIfMatchIsWeak() {
+            UserResponseDto user = createUser();
+
+            ResponseEntity<ExceptionResponse> response = exchangeIfMatch(user.getId(), HttpMethod.PATCH, new UserUpdateRequestDto("Weak", null), "W/\"0\"", ExceptionResponse.class);
+
+            assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        }
+    }
+
+    @Nested
+    class deleteUserTests {
+        @Test
+        void deleteUser_ShouldReturnNotFound_WhenUserDoesNotExist() {
+            ResponseEntity<ExceptionResponse> response = restTemplate.exchange("/users/" + UUID.randomUUID(), HttpMethod.DELETE, null, ExceptionResponse.class);
+
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        }
+
+        @Test
+        void deleteUser_ShouldDeleteUser_WhenUserExists() {
+            UserResponseDto user = createUser();
+
+            ResponseEntity<Void> response = restTemplate.exchange("/users/" + user.getId(), HttpMethod.DELETE, null, Void.class);
+
+            assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+            assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/users/" + user.getId(), ExceptionResponse.class).getStatusCode());
+        }
+
+        @Test
+        void deleteUser_ShouldReturnPreconditionFailed_WhenIfMatchIsStale() {
+            UserResponseDto user = createUser();
+
+            ResponseEntity<ExceptionResponse> response = exchangeIfMatch(user.getId(), HttpMethod.DELETE, null, "\"7\"", ExceptionResponse.class);
+
+            assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+            assertEquals(HttpStatus.OK, restTemplate.getForEntity("/users/" + user.getId(), UserResponseDto.class).getStatusCode());
+        }
+    }
+
+    @Nested
+    class metricsTests {
+        @Test
+        void prometheus_ShouldExposeExceptionCounter_WhenUserIsNotFound() {
+            restTemplate.getForEntity("/users/" + UUID.randomUUID(), ExceptionResponse.class);
+
+            ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(response.getBody().contains("api_exceptions_total{exception=\"UserNotFoundException\",status=\"404\"}"));
+        }
+
+        @Test
+        void prometheus_ShouldExposeRequestHistogram_WhenUsersAreListed() {
+            restTemplate.getForEntity("/users", UserPageResponseDto.class);
+
+            ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+            assertTrue(response.getBody().contains("http_server_requests_seconds_bucket{"));
+            assertTrue(response.getBody().contains("uri=\"/users\""));
+        }
+    }
+}
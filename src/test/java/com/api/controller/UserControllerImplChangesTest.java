@@ -0,0 +1,185 @@
+package com.api.controller;
+
+import com.api.changes.UserChangeFeed;
+import com.api.dto.user.UserChangeDto;
+import com.api.dto.user.UserChangePageDto;
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.dto.user.UserUpdateRequestDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:changes",
+                "api.users.changes.poll-interval=20ms",
+                "api.users.changes.long-poll-timeout=2s"
+        }
+)
+class UserControllerImplChangesTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserChangeFeed userChangeFeed;
+
+    @LocalServerPort
+    private int port;
+
+    private UserResponseDto createUser() {
+        UserRequestDto dto = new UserRequestDto("Test", UUID.randomUUID() + "@gmail.com", "12345678");
+        return restTemplate.postForEntity("/users", dto, UserResponseDto.class).getBody();
+    }
+
+    private List<UserChangeDto> changesOf(UUID id, long since, int expected) {
+        List<UserChangeDto> changes = new ArrayList<>();
+
+        for (int i = 0; i < 10 && changes.size() < expected; i++) {
+            UserChangePageDto page = restTemplate.getForObject("/users/changes?since=" + since, UserChangePageDto.class);
+            page.getChanges().stream().filter(change -> change.getId().equals(id)).forEach(changes::add);
+            since = page.getNextOffset();
+        }
+
+        return changes;
+    }
+
+    @Test
+    void getUserChanges_ShouldReturnEveryMutation_InOffsetOrder() {
+        long since = userChangeFeed.latestOffset();
+        UserResponseDto user = createUser();
+        restTemplate.exchange("/users/" + user.getId(), HttpMethod.PATCH, new HttpEntity<>(new UserUpdateRequestDto("Novo", null)), UserResponseDto.class);
+        restTemplate.delete("/users/" + user.getId());
+
+        List<UserChangeDto> changes = changesOf(user.getId(), since, 3);
+
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), changes.stream().map(UserChangeDto::getType).toList());
+        assertEquals("Novo", changes.get(1).getNome());
+        assertTrue(changes.get(0).getOffset() < changes.get(1).getOffset() && changes.get(1).getOffset() < changes.get(2).getOffset());
+    }
+
+    @Test
+    void getUserChanges_ShouldWaitForChange_WhenNoneIsAvailable() throws Exception {
+        long since = userChangeFeed.latestOffset();
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException ex) {
+                return;
+            }
+
+            createUser();
+        });
+        writer.start();
+
+        ResponseEntity<UserChangePageDto> response = restTemplate.getForEntity("/users/changes?since=" + since, UserChangePageDto.class);
+        writer.join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertFalse(response.getBody().getChanges().isEmpty());
+        assertTrue(response.getBody().getNextOffset() > since);
+    }
+
+    @Test
+    void getUserChanges_ShouldReturnNextChange_WhenSinceIsBeyondLatest() throws Exception {
+        long latest = userChangeFeed.latestOffset();
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException ex) {
+                return;
+            }
+
+            createUser();
+        });
+        writer.start();
+
+        ResponseEntity<UserChangePageDto> response = restTemplate.getForEntity("/users/changes?since=" + (latest + 1_000), UserChangePageDto.class);
+        writer.join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertFalse(response.getBody().getChanges().isEmpty());
+        assertTrue(response.getBody().getNextOffset() <= latest + 2);
+    }
+
+    @Test
+    void getUserChanges_ShouldReturnPage_WhenAcceptIsMissing() throws Exception {
+        createUser();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/changes")).build();
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+    }
+
+    @Test
+    void getUserChanges_ShouldReturnBadRequest_WhenSizeIsInvalid() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/users/changes?size=0", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void streamUserChanges_ShouldStartAtLatestOffset_WhenSinceIsMissing() {
+        long since = userChangeFeed.latestOffset();
+        UserResponseDto before = createUser();
+        // Wait for the relay to publish it, so it is behind the offset the stream starts at.
+        assertEquals(1, changesOf(before.getId(), since, 1).size());
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/changes"))
+                .header("Accept", "text/event-stream")
+                .build();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            // The headers only go out with the first event, so the user is created while the request waits.
+            CompletableFuture<HttpResponse<Stream<String>>> response = HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+            Thread.sleep(500);
+            UserResponseDto after = createUser();
+
+            try (Stream<String> lines = response.get().body()) {
+                String data = lines.filter(line -> line.startsWith("data:")).findFirst().orElseThrow();
+                assertTrue(data.contains(after.getId().toString()));
+            }
+        });
+    }
+
+    @Test
+    void streamUserChanges_ShouldSendEvents_WhenAcceptIsEventStream() {
+        long since = userChangeFeed.latestOffset();
+        UserResponseDto user = createUser();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/changes?since=" + since))
+                .header("Accept", "text/event-stream")
+                .build();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+
+            try (Stream<String> lines = response.body()) {
+                assertEquals(200, response.statusCode());
+                assertTrue(lines.anyMatch(line -> line.startsWith("data:") && line.contains(user.getId().toString())));
+            }
+        });
+    }
+}
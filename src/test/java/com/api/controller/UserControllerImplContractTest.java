@@ -0,0 +1,7 @@
+package com.api.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserControllerImplContractTest extends UserControllerContractTest {
+}
@@ -0,0 +1,81 @@
+package com.api.controller;
+
+import com.api.dto.user.UserLoginRequestDto;
+import com.api.dto.user.UserResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Users are inserted through JDBC with hashes from an older, weaker configuration, as a migration would leave them. */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:login;DB_CLOSE_DELAY=-1",
+                "api.users.password.strength=5"
+        }
+)
+class UserControllerImplLoginTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID insertUser(String email, String password) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("insert into users (id, name, email, password, version) values (?, ?, ?, ?, 0)", id, "Test", email, password);
+        return id;
+    }
+
+    private String storedPassword(UUID id) {
+        return jdbcTemplate.queryForObject("select password from users where id = ?", String.class, id);
+    }
+
+    @Test
+    void login_ShouldUpgradeStoredHash_WhenHashIsWeakerThanConfigured() {
+        String email = UUID.randomUUID() + "@gmail.com";
+        UUID id = insertUser(email, new BCryptPasswordEncoder(4).encode("12345678"));
+
+        ResponseEntity<UserResponseDto> response = restTemplate.postForEntity("/users/login", new UserLoginRequestDto(email, "12345678"), UserResponseDto.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(id, response.getBody().getId());
+        assertTrue(storedPassword(id).startsWith("$2a$05$"));
+        assertTrue(new BCryptPasswordEncoder().matches("12345678", storedPassword(id)));
+    }
+
+    @Test
+    void login_ShouldUpgradeStoredPassword_WhenPasswordIsPlaintext() {
+        String email = UUID.randomUUID() + "@gmail.com";
+        UUID id = insertUser(email, "12345678");
+
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity("/users/login", new UserLoginRequestDto(email, "12345678"), UserResponseDto.class).getStatusCode());
+        assertTrue(storedPassword(id).startsWith("$2a$05$"));
+    }
+
+    @Test
+    void login_ShouldReturnUnauthorizedAndKeepHash_WhenPasswordIsWrong() {
+        String email = UUID.randomUUID() + "@gmail.com";
+        String legacyHash = new BCryptPasswordEncoder(4).encode("12345678");
+        UUID id = insertUser(email, legacyHash);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, restTemplate.postForEntity("/users/login", new UserLoginRequestDto(email, "87654321"), String.class).getStatusCode());
+        assertEquals(legacyHash, storedPassword(id));
+    }
+
+    @Test
+    void login_ShouldReturnUnauthorized_WhenEmailDoesNotExist() {
+        UserLoginRequestDto dto = new UserLoginRequestDto(UUID.randomUUID() + "@gmail.com", "12345678");
+
+        assertEquals(HttpStatus.UNAUTHORIZED, restTemplate.postForEntity("/users/login", dto, String.class).getStatusCode());
+    }
+}
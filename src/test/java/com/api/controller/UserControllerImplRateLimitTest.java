@@ -0,0 +1,97 @@
+package com.api.controller;
+
+import com.api.dto.user.UserRequestDto;
+import com.api.exception.ExceptionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:rate-limit",
+                "server.forward-headers-strategy=native",
+                "api.users.rate-limit.enabled=true",
+                "api.users.rate-limit.requests-per-second=1",
+                "api.users.rate-limit.burst=2",
+                "api.users.rate-limit.routes[getUserChanges].initial-limit=1",
+                "api.users.rate-limit.routes[getUserChanges].min-limit=1",
+                "api.users.rate-limit.routes[getUserChanges].max-limit=1",
+                "api.users.changes.long-poll-timeout=5s"
+        }
+)
+class UserControllerImplRateLimitTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private ResponseEntity<ExceptionResponse> get(String path, String header, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(header, value);
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), ExceptionResponse.class);
+    }
+
+    private ResponseEntity<ExceptionResponse> getAs(String apiKey) {
+        return get("/users/" + UUID.randomUUID(), "X-API-Key", apiKey);
+    }
+
+    private ResponseEntity<ExceptionResponse> getFrom(String address) {
+        return get("/users/" + UUID.randomUUID(), "X-Forwarded-For", address);
+    }
+
+    @Test
+    void getUserById_ShouldReturnTooManyRequests_WhenClientExceedsBurst() {
+        String apiKey = "burst-client";
+
+        assertEquals(HttpStatus.NOT_FOUND, getAs(apiKey).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, getAs(apiKey).getStatusCode());
+
+        ResponseEntity<ExceptionResponse> response = getAs(apiKey);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals(429, response.getBody().getStatus());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void getUserById_ShouldNotLimitOtherClients_WhenOneClientExceedsBurst() {
+        for (int i = 0; i < 3; i++) getAs("noisy-client");
+
+        assertEquals(HttpStatus.NOT_FOUND, getAs("quiet-client").getStatusCode());
+    }
+
+    @Test
+    void getUserById_ShouldLimitByForwardedAddress_WhenRequestComesFromTrustedProxy() {
+        for (int i = 0; i < 2; i++) getFrom("203.0.113.7");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, getFrom("203.0.113.7").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, getFrom("203.0.113.8").getStatusCode());
+    }
+
+    @Test
+    void getUserChanges_ShouldHoldRoutePermit_UntilLongPollCompletes() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-API-Key", "writer");
+        restTemplate.postForEntity("/users", new HttpEntity<>(new UserRequestDto("Test", UUID.randomUUID() + "@gmail.com", "12345678"), headers), String.class);
+        // Returns as soon as the new user is published; from then on, a poll from offset 0 answers at once.
+        assertEquals(HttpStatus.OK, get("/users/changes?since=0", "X-API-Key", "probe").getStatusCode());
+
+        CompletableFuture<ResponseEntity<ExceptionResponse>> longPoll = CompletableFuture.supplyAsync(() -> get("/users/changes", "X-API-Key", "poller"));
+        Thread.sleep(1000);
+        assertFalse(longPoll.isDone());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, get("/users/changes?since=0", "X-API-Key", "blocked").getStatusCode());
+        assertEquals(HttpStatus.OK, longPoll.get().getStatusCode());
+        assertEquals(HttpStatus.OK, get("/users/changes?since=0", "X-API-Key", "after").getStatusCode());
+    }
+}
@@ -0,0 +1,81 @@
+package com.api.controller;
+
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.dto.user.UserUpdateRequestDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The replica is the primary's own database, so its lag is always zero and every read it serves is counted. */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:replicas;DB_CLOSE_DELAY=-1",
+                "api.users.replicas.enabled=true",
+                "api.users.replicas.nodes.replica-a.url=jdbc:h2:mem:replicas;DB_CLOSE_DELAY=-1",
+                "api.users.replicas.max-lag=500ms",
+                "api.users.replicas.check-interval=100ms",
+                "api.users.changes.poll-interval=20ms"
+        }
+)
+class UserControllerImplReplicaTest {
+    // Longer than max-lag plus check-interval, the window a written user is read from the primary.
+    private static final long WINDOW_MILLIS = 1_000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserResponseDto createUser() {
+        UserRequestDto dto = new UserRequestDto("Test", UUID.randomUUID() + "@gmail.com", "12345678");
+        return restTemplate.postForEntity("/users", dto, UserResponseDto.class).getBody();
+    }
+
+    private double replicaReads() {
+        return meterRegistry.get("users.replica.reads").tag("replica", "replica-a").functionCounter().count();
+    }
+
+    @Test
+    void getUserById_ShouldReadFromReplica_WhileRelayIsRunning() throws InterruptedException {
+        UserResponseDto user = createUser();
+        // The relay commits a round every poll interval meanwhile; none of them may keep reads off the replica.
+        Thread.sleep(WINDOW_MILLIS);
+
+        double before = replicaReads();
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/users/" + user.getId(), UserResponseDto.class).getStatusCode());
+        assertTrue(replicaReads() > before);
+
+        before = replicaReads();
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/users?size=5", String.class).getStatusCode());
+        assertTrue(replicaReads() > before);
+    }
+
+    @Test
+    void getUserById_ShouldReadOnlyWrittenUserFromPrimary_RightAfterWrite() throws InterruptedException {
+        UserResponseDto written = createUser();
+        UserResponseDto other = createUser();
+        Thread.sleep(WINDOW_MILLIS);
+
+        restTemplate.exchange("/users/" + written.getId(), HttpMethod.PATCH, new HttpEntity<>(new UserUpdateRequestDto("Novo", null)),
+                UserResponseDto.class);
+
+        double before = replicaReads();
+        assertEquals("Novo", restTemplate.getForObject("/users/" + written.getId(), UserResponseDto.class).getNome());
+        assertEquals(before, replicaReads());
+
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/users/" + other.getId(), UserResponseDto.class).getStatusCode());
+        assertTrue(replicaReads() > before);
+    }
+}
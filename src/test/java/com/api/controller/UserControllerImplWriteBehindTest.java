@@ -0,0 +1,69 @@
+package com.api.controller;
+
+import com.api.dto.user.UserRequestDto;
+import com.api.dto.user.UserResponseDto;
+import com.api.dto.user.UserWriteStatusDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:write-behind",
+                "api.users.write-behind.enabled=true",
+                "api.users.write-behind.flush-interval=10ms"
+        }
+)
+class UserControllerImplWriteBehindTest {
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("api.users.write-behind.journal", () -> directory.resolve("users.journal").toString());
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void saveUser_ShouldAcceptAndPersistLater_WhenWriteBehindIsEnabled() throws Exception {
+        UserRequestDto dto = new UserRequestDto("Test", UUID.randomUUID() + "@gmail.com", "12345678");
+
+        ResponseEntity<UserResponseDto> response = restTemplate.postForEntity("/users", dto, UserResponseDto.class);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/users/" + response.getBody().getId() + "/status", response.getHeaders().getLocation().toString());
+
+        UserWriteStatusDto status = restTemplate.getForObject(response.getHeaders().getLocation(), UserWriteStatusDto.class);
+        for (int i = 0; i < 100 && !status.getStatus().equals("PERSISTED"); i++) {
+            Thread.sleep(20);
+            status = restTemplate.getForObject(response.getHeaders().getLocation(), UserWriteStatusDto.class);
+        }
+
+        assertEquals("PERSISTED", status.getStatus());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/users/" + response.getBody().getId(), UserResponseDto.class).getStatusCode());
+    }
+
+    @Test
+    void saveUser_ShouldReturnConflict_WhenEmailIsAlreadyQueued() {
+        UserRequestDto dto = new UserRequestDto("Test", UUID.randomUUID() + "@gmail.com", "12345678");
+
+        restTemplate.postForEntity("/users", dto, UserResponseDto.class);
+        ResponseEntity<UserResponseDto> response = restTemplate.postForEntity("/users", dto, UserResponseDto.class);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+}
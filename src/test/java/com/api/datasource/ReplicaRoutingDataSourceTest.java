@@ -0,0 +1,129 @@
+package com.api.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+    private final DataSource primary = database("primary", 0);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private static DataSource database(String name, double lagSeconds) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists replica_lag (seconds double)");
+            statement.execute("delete from replica_lag");
+            statement.execute("insert into replica_lag values (" + lagSeconds + ")");
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return dataSource;
+    }
+
+    private static ReplicaRoutingDataSource routing(DataSource primary, Map<String, DataSource> replicas) {
+        UserReplicaProperties properties = new UserReplicaProperties();
+        properties.setMaxLag(Duration.ofSeconds(1));
+        properties.setLagQuery("select seconds from replica_lag");
+        return new ReplicaRoutingDataSource(primary, replicas, properties);
+    }
+
+    private static String databaseOf(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL().substring("jdbc:h2:mem:".length());
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Test
+    void getConnection_ShouldRoundRobinReplicas_WhenTransactionIsReadOnly() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-a", database("replica-a", 0));
+        replicas.put("replica-b", database("replica-b", 0.5));
+        ReplicaRoutingDataSource dataSource = routing(primary, replicas);
+        dataSource.checkReplicas();
+
+        assertEquals("primary", databaseOf(dataSource));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-a", databaseOf(dataSource));
+        assertEquals("replica-b", databaseOf(dataSource));
+        assertEquals("replica-a", databaseOf(dataSource));
+    }
+
+    @Test
+    void getConnection_ShouldSkipReplicas_ThatLagTooFarBehind() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-c", database("replica-c", 5));
+        replicas.put("replica-d", database("replica-d", 0));
+        ReplicaRoutingDataSource dataSource = routing(primary, replicas);
+        dataSource.checkReplicas();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-d", databaseOf(dataSource));
+        assertEquals("replica-d", databaseOf(dataSource));
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToPrimary_WhenNoReplicaIsUsable() {
+        JdbcDataSource missing = new JdbcDataSource();
+        missing.setURL("jdbc:h2:mem:replica-missing;IFEXISTS=TRUE");
+        ReplicaRoutingDataSource dataSource = routing(primary, Map.of("replica-missing", missing));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", databaseOf(dataSource));
+
+        dataSource.checkReplicas();
+
+        assertEquals("primary", databaseOf(dataSource));
+    }
+
+    @Test
+    void read_ShouldUsePrimary_WhenKeyWasJustWritten() {
+        ReplicaRoutingDataSource dataSource = routing(primary, Map.of("replica-e", database("replica-e", 0)));
+        dataSource.checkReplicas();
+        dataSource.pinToPrimary("written");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", dataSource.read("written", () -> databaseOf(dataSource)));
+        assertEquals("replica-e", dataSource.read("other", () -> databaseOf(dataSource)));
+        assertEquals("replica-e", databaseOf(dataSource));
+    }
+
+    @Test
+    void read_ShouldUseReplica_WhenWindowHasPassed() throws InterruptedException {
+        UserReplicaProperties properties = new UserReplicaProperties();
+        properties.setMaxLag(Duration.ofMillis(10));
+        properties.setCheckInterval(Duration.ofMillis(10));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-f", database("replica-f", 0)), properties);
+        dataSource.checkReplicas();
+        dataSource.pinToPrimary("written");
+
+        Thread.sleep(50);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-f", dataSource.read("written", () -> databaseOf(dataSource)));
+    }
+}
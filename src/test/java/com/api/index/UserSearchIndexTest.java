@@ -0,0 +1,68 @@
+package com.api.index;
+
+import com.api.entity.User;
+import com.api.entity.UserSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchIndexTest {
+    private final UserSearchIndex index = new UserSearchIndex(null, null);
+
+    private User putUser(String name, String email) {
+        User user = new User(UUID.randomUUID(), name, email, "12345678", 0L);
+        index.put(user);
+        return user;
+    }
+
+    private List<UUID> search(String query) {
+        return index.search(query, null, 10).stream().map(UserSummary::getId).toList();
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesOfEveryWord_IgnoringCaseAndAccents() {
+        User joao = putUser("João Silva", "joao.silva@gmail.com");
+        putUser("Maria Silva", "maria@gmail.com");
+
+        assertEquals(List.of(joao.getId()), search("JOAO sil"));
+        assertEquals(List.of(joao.getId()), search("joao.silva@gm"));
+        assertEquals(2, search("silva").size());
+    }
+
+    @Test
+    void search_ShouldTolerateTypos_WhenNoWordHasThePrefix() {
+        User user = putUser("Fernanda Albuquerque", "fernanda@gmail.com");
+
+        assertEquals(List.of(user.getId()), search("albukerque"));
+        assertTrue(search("xyz").isEmpty());
+    }
+
+    @Test
+    void search_ShouldReflectUpdatesAndRemovals() {
+        User user = putUser("Carlos", "carlos@gmail.com");
+        index.put(new User(user.getId(), "Ricardo", "ricardo@gmail.com", null, 1L));
+
+        assertTrue(search("carlos").isEmpty());
+        assertEquals(List.of(user.getId()), search("ricardo"));
+
+        index.remove(user.getId());
+
+        assertTrue(search("ricardo").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void search_ShouldPageInIdOrder_WhenCursorIsGiven() {
+        for (int i = 0; i < 5; i++) putUser("Ana " + i, "ana" + i + "@gmail.com");
+
+        List<UserSummary> first = index.search("ana", null, 3);
+        List<UserSummary> second = index.search("ana", first.get(2).getId(), 3);
+
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertTrue(first.get(2).getId().toString().compareTo(second.get(0).getId().toString()) < 0);
+    }
+}
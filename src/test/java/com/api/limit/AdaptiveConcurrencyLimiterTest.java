@@ -0,0 +1,63 @@
+package com.api.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    private AdaptiveConcurrencyLimiter newLimiter(int initialLimit) {
+        UserRateLimitProperties.Concurrency concurrency = new UserRateLimitProperties.Concurrency();
+        concurrency.setInitialLimit(initialLimit);
+        concurrency.setMinLimit(1);
+        concurrency.setMaxLimit(4);
+        concurrency.setTargetLatency(Duration.ofMillis(100));
+        return new AdaptiveConcurrencyLimiter(concurrency);
+    }
+
+    @Test
+    void tryAcquire_ShouldReject_WhenLimitIsReached() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    void release_ShouldShrinkLimit_WhenResponsesAreSlow() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(3);
+
+        limiter.tryAcquire();
+        limiter.release(Duration.ofMillis(500).toNanos(), false);
+
+        assertEquals(2, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void release_ShouldGrowLimitUpToMax_WhenBusyRouteRespondsFast() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(2);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(Duration.ofMillis(1).toNanos(), false);
+            limiter.release(Duration.ofMillis(1).toNanos(), false);
+        }
+
+        assertEquals(4, limiter.limit());
+    }
+
+    @Test
+    void release_ShouldNotShrinkBelowMin_WhenRequestsFail() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(1);
+
+        limiter.tryAcquire();
+        limiter.release(0, true);
+
+        assertEquals(1, limiter.limit());
+    }
+}
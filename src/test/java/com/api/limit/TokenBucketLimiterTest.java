@@ -0,0 +1,56 @@
+package com.api.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+    @Test
+    void tryAcquire_ShouldRejectRequests_WhenBurstIsExhausted() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 3, 16);
+
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+        assertFalse(limiter.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBuckets_WhenClientHashesCollide() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 1024);
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        assertTrue(limiter.tryAcquire("Aa"));
+        assertFalse(limiter.tryAcquire("Aa"));
+        assertTrue(limiter.tryAcquire("BB"));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillTokens_WhenTimePasses() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 1, 16);
+
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+        assertFalse(limiter.tryAcquire("10.0.0.1"));
+
+        Thread.sleep(150);
+
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    void clients_ShouldDropBuckets_WhenTheyWouldHaveRefilled() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1000, 1, 16);
+
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.2");
+
+        Thread.sleep(20);
+
+        assertEquals(0, limiter.clients());
+    }
+
+    @Test
+    void constructor_ShouldRejectBurst_WhenItDoesNotFitTheSlot() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(1, 20_000, 16));
+    }
+}
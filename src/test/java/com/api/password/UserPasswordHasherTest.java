@@ -0,0 +1,51 @@
+package com.api.password;
+
+import com.api.exception.user.UserOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPasswordHasherTest {
+    private static UserPasswordHasher newHasher(int strength, int threads, int queueCapacity) {
+        UserPasswordProperties properties = new UserPasswordProperties();
+        properties.setStrength(strength);
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        return new UserPasswordHasher(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void verify_ShouldMatchHash_WithoutRehashing_WhenStrengthIsUnchanged() {
+        UserPasswordHasher hasher = newHasher(4, 1, 10);
+        String hash = hasher.hash("12345678").join();
+
+        UserPasswordHasher.Verification verification = hasher.verify("12345678", hash).join();
+
+        assertNotEquals("12345678", hash);
+        assertTrue(verification.matches());
+        assertNull(verification.rehashedPassword());
+        assertFalse(hasher.verify("87654321", hash).join().matches());
+    }
+
+    @Test
+    void verify_ShouldRehash_WhenStrengthWasRaised() {
+        String hash = newHasher(4, 1, 10).hash("12345678").join();
+
+        UserPasswordHasher.Verification verification = newHasher(5, 1, 10).verify("12345678", hash).join();
+
+        assertTrue(verification.matches());
+        assertTrue(verification.rehashedPassword().startsWith("$2a$05$"));
+    }
+
+    @Test
+    void hash_ShouldThrowUserOverloadedException_WhenQueueIsFull() {
+        // Strength 10 keeps the single thread busy long enough for the next two submissions to find it taken.
+        UserPasswordHasher hasher = newHasher(10, 1, 1);
+
+        hasher.hash("12345678");
+        hasher.hash("12345678");
+
+        assertThrows(UserOverloadedException.class, () -> hasher.hash("12345678"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.api.queue;
+
+import com.api.cache.UserCache;
+import com.api.cache.UserCacheProperties;
+import com.api.cache.UserChangeCounter;
+import com.api.changes.UserChangeOutbox;
+import com.api.entity.User;
+import com.api.index.UserEmailIndex;
+import com.api.index.UserSearchIndex;
+import com.api.repository.UserRepository;
+import com.api.service.UserWriteStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserWriteBehindQueueTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserChangeOutbox userChangeOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private UserWriteBehindProperties properties;
+
+    private UserEmailIndex userEmailIndex;
+
+    private UserWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserWriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setFlushInterval(Duration.ofMillis(10));
+        properties.setRetryBackoff(Duration.ofMillis(10));
+        properties.setJournal(directory.resolve("users.journal"));
+        userEmailIndex = new UserEmailIndex(userRepository, null);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (queue != null) queue.stop();
+    }
+
+    private UserWriteBehindQueue newQueue() {
+        return new UserWriteBehindQueue(properties, userRepository, userEmailIndex, new UserSearchIndex(userRepository, null),
+                new UserCache(new UserCacheProperties()), new UserChangeCounter(), userChangeOutbox,
+                new TransactionTemplate(transactionManager), objectMapper, new SimpleMeterRegistry());
+    }
+
+    private User newUser() {
+        return new User(UUID.randomUUID(), "Test", UUID.randomUUID() + "@gmail.com", "12345678", null);
+    }
+
+    private void awaitFlushed(User user) throws InterruptedException {
+        for (int i = 0; i < 200 && queue.status(user.getId()) != null; i++) Thread.sleep(20);
+    }
+
+    @Test
+    void enqueue_ShouldKeepUserPending_WhileDatabaseIsUnavailable() throws Exception {
+        when(userRepository.saveAll(any()))
+                .thenThrow(new CannotGetJdbcConnectionException("down", new SQLException()))
+                .thenThrow(new CannotGetJdbcConnectionException("down", new SQLException()))
+                .thenReturn(List.of());
+        queue = newQueue();
+        queue.start();
+        User user = newUser();
+        userEmailIndex.reserve(user.getEmail());
+
+        queue.enqueue(user);
+        awaitFlushed(user);
+
+        assertNull(queue.status(user.getId()));
+        assertFalse(userEmailIndex.reserve(user.getEmail()));
+        verify(userRepository, times(3)).saveAll(any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void enqueue_ShouldFailUser_WhenRowIsRejected() throws Exception {
+        when(userRepository.saveAll(any())).thenThrow(new IllegalStateException("rejected"));
+        when(userRepository.save(any())).thenThrow(new IllegalStateException("rejected"));
+        queue = newQueue();
+        queue.start();
+        User user = newUser();
+        userEmailIndex.reserve(user.getEmail());
+
+        queue.enqueue(user);
+        for (int i = 0; i < 200 && queue.status(user.getId()).getState() == UserWriteStatus.State.PENDING; i++) Thread.sleep(20);
+
+        assertEquals(UserWriteStatus.State.FAILED, queue.status(user.getId()).getState());
+        assertTrue(userEmailIndex.reserve(user.getEmail()));
+    }
+
+    @Test
+    void start_ShouldReplayEveryUser_WhenJournalHoldsMoreThanCapacity() throws Exception {
+        List<User> journaled = List.of(newUser(), newUser(), newUser());
+        try (UserWriteJournal journal = new UserWriteJournal(properties.getJournal(), objectMapper, properties.getJournalCompactionThreshold())) {
+            journal.open();
+            for (User user : journaled) journal.append(user);
+        }
+        properties.setCapacity(1);
+        queue = newQueue();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), queue::start);
+        for (User user : journaled) awaitFlushed(user);
+
+        for (User user : journaled) assertNull(queue.status(user.getId()));
+        queue.enqueue(newUser());
+    }
+}
@@ -0,0 +1,140 @@
+package com.api.queue;
+
+import com.api.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserWriteJournalTest {
+    private static final int COMPACTION_THRESHOLD = 4;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path directory;
+
+    private User newUser(String email) {
+        return new User(UUID.randomUUID(), "Test", email, "12345678", null);
+    }
+
+    @Test
+    void open_ShouldReplayOnlyPendingUsers_WhenJournalHasCompletedEntries() throws Exception {
+        Path path = directory.resolve("users.journal");
+        User persisted = newUser("persisted@gmail.com");
+        User pending = newUser("pending@gmail.com");
+
+        try (UserWriteJournal journal = new UserWriteJournal(path, objectMapper, COMPACTION_THRESHOLD)) {
+            journal.open();
+            journal.append(persisted);
+            journal.append(pending);
+            journal.complete(List.of(persisted.getId()));
+        }
+
+        try (UserWriteJournal journal = new UserWriteJournal(path, objectMapper, COMPACTION_THRESHOLD)) {
+            List<User> replayed = journal.open();
+
+            assertEquals(1, replayed.size());
+            assertEquals(pending.getId(), replayed.get(0).getId());
+            assertEquals(pending.getEmail(), replayed.get(0).getEmail());
+        }
+    }
+
+    @Test
+    void open_ShouldIgnoreTornLastLine_WhenProcessCrashedMidWrite() throws Exception {
+        Path path = directory.resolve("users.journal");
+        User pending = newUser("pending@gmail.com");
+
+        try (UserWriteJournal journal = new UserWriteJournal(path, objectMapper, COMPACTION_THRESHOLD)) {
+            journal.open();
+            journal.append(pending);
+        }
+
+        Files.writeString(path, "{\"op\":\"ADD\",\"id\":\"", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (UserWriteJournal journal = new UserWriteJournal(path, objectMapper, COMPACTION_THRESHOLD)) {
+            assertEquals(List.of(pending.getId()), journal.open().stream().map(User::getId).toList());
+        }
+    }
+
+    @Test
+    void complete_ShouldTruncateJournal_WhenNothingIsPending() throws Exception {
+        Path path = directory.resolve("users.journal");
+        User user = newUser("test@gmail.com");
+
+        try (UserWriteJournal journal = new UserWriteJournal(path, objectMapper, COMPACTION_THRESHOLD)) {
+            journal.open();
+            journal.append(user);
+            journal.complete(List.of(user.getId()));
+        }
+
+        assertEquals(0, Files.size(path));
+    }
+
+    @Test
+    void complete_ShouldCompactJournal_WhenCompletedEntriesReachThreshold() throws Exception {
+        Path path = directory.resolve("users.journal");
+        User pending = newUser("pending@gmail.com");
+
+        try (UserWriteJournal journal = new UserWriteJournal(path, objectMapper, COMPACTION_THRESHOLD)) {
+            journal.open();
+            journal.append(pending);
+
+            for (int i = 0; i < COMPACTION_THRESHOLD; i++) {
+                User user = newUser("user" + i + "@gmail.com");
+                journal.append(user);
+                journal.complete(List.of(user.getId()));
+            }
+
+            assertEquals(1, Files.readAllLines(path).size());
+
+            // Still appendable after the swap.
+            User next = newUser("next@gmail.com");
+            journal.append(next);
+            assertEquals(2, Files.readAllLines(path).size());
+        }
+
+        try (UserWriteJournal journal = new UserWriteJournal(path, objectMapper, COMPACTION_THRESHOLD)) {
+            assertEquals(List.of("pending@gmail.com", "next@gmail.com"), journal.open().stream().map(User::getEmail).toList());
+        }
+    }
+
+    @Test
+    void append_ShouldKeepEveryEntry_WhenAppendingConcurrently() throws Exception {
+        Path path = directory.resolve("users.journal");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<User>> appended = new ArrayList<>();
+
+        try (UserWriteJournal journal = new UserWriteJournal(path, objectMapper, COMPACTION_THRESHOLD)) {
+            journal.open();
+
+            for (int i = 0; i < 200; i++) {
+                User user = newUser("user" + i + "@gmail.com");
+                appended.add(executor.submit(() -> {
+                    journal.append(user);
+                    return user;
+                }));
+            }
+
+            for (Future<User> future : appended) future.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        try (UserWriteJournal journal = new UserWriteJournal(path, objectMapper, COMPACTION_THRESHOLD)) {
+            assertEquals(200, journal.open().size());
+        }
+    }
+}
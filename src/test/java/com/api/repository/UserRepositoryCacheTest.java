@@ -0,0 +1,83 @@
+package com.api.repository;
+
+import com.api.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:second-level-cache")
+class UserRepositoryCacheTest {
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(User.builder().name("Test").email(UUID.randomUUID() + "@gmail.com").password("12345678").build());
+        statistics.clear();
+    }
+
+    private CacheRegionStatistics queryRegion() {
+        return statistics.getQueryRegionStatistics(UserRepository.QUERY_CACHE_REGION);
+    }
+
+    private CacheRegionStatistics entityRegion() {
+        return statistics.getDomainDataRegionStatistics(User.CACHE_REGION);
+    }
+
+    @Test
+    void queries_ShouldHitDatabaseOnce_WhenRepeatedWithoutWrites() {
+        for (int i = 0; i < ROUNDS; i++) {
+            assertFalse(userRepository.findAllByOrderByIdAsc(Limit.of(20)).isEmpty());
+            assertFalse(userRepository.findByIdGreaterThanOrderByIdAsc(new UUID(0, 0), Limit.of(20)).isEmpty());
+            assertTrue(userRepository.findById(user.getId()).isPresent());
+        }
+
+        // A miss is the only time the query reaches the database.
+        assertEquals(2, queryRegion().getMissCount());
+        assertEquals(2 * (ROUNDS - 1), queryRegion().getHitCount());
+        assertEquals(0, entityRegion().getMissCount());
+        assertEquals(ROUNDS, entityRegion().getHitCount());
+    }
+
+    @Test
+    void queries_ShouldHitDatabaseAgain_WhenUsersChanged() {
+        userRepository.findAllByOrderByIdAsc(Limit.of(20));
+        userRepository.findAllByOrderByIdAsc(Limit.of(20));
+        assertEquals(1, queryRegion().getMissCount());
+
+        userRepository.updateUserById(user.getId(), "Novo", null, user.getVersion());
+
+        userRepository.findAllByOrderByIdAsc(Limit.of(20));
+        assertEquals(2, queryRegion().getMissCount());
+        assertEquals("Novo", userRepository.findById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void loadQueries_ShouldBypassQueryCache() {
+        userRepository.readAllByOrderByIdAsc(Limit.of(20));
+        userRepository.readByIdGreaterThanOrderByIdAsc(new UUID(0, 0), Limit.of(20));
+
+        // Across every region: the region itself isn't created until a cacheable query runs.
+        assertEquals(0, statistics.getQueryCacheMissCount());
+        assertEquals(0, statistics.getQueryCachePutCount());
+    }
+}
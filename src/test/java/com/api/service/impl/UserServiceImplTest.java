@@ -1,21 +1,57 @@
 package com.api.service.impl;
 
+import com.api.cache.UserCache;
+import com.api.cache.UserCacheProperties;
+import com.api.cache.UserChangeCounter;
+import com.api.changes.UserChangeOutbox;
+import com.api.datasource.ReplicaRoutingDataSource;
 import com.api.entity.User;
+import com.api.entity.UserSummary;
 import com.api.exception.user.UserEmailAlreadyExistsException;
 import com.api.exception.user.UserFieldsNullException;
+import com.api.exception.user.UserInvalidCredentialsException;
 import com.api.exception.user.UserNotFoundException;
+import com.api.exception.user.UserPreconditionFailedException;
+import com.api.exception.user.UserQueueFullException;
+import com.api.exception.user.UserVersionConflictException;
+import com.api.index.UserEmailIndex;
+import com.api.index.UserSearchIndex;
+import com.api.password.UserPasswordHasher;
+import com.api.password.UserPasswordProperties;
+import com.api.queue.UserWriteBehindQueue;
+import com.api.repository.UserChangeRepository;
 import com.api.repository.UserRepository;
+import com.api.service.UserBatchResult;
 import com.api.service.UserService;
+import com.api.service.UserWriteStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,37 +59,104 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserWriteBehindQueue userWriteBehindQueue;
+
+    @Mock
+    private UserChangeOutbox userChangeOutbox;
+
+    @Mock
+    private UserChangeRepository userChangeRepository;
+
+    @Mock
+    private ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    private UserEmailIndex userEmailIndex;
+
+    private UserSearchIndex userSearchIndex;
+
+    private UserCache userCache;
+
     private UserService userService;
 
+    private final UserPasswordHasher userPasswordHasher = newUserPasswordHasher();
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    private UserSummary toUserSummary(User user) {
+        return projectionFactory.createProjection(UserSummary.class, user);
+    }
+
+    private static UserPasswordHasher newUserPasswordHasher() {
+        UserPasswordProperties properties = new UserPasswordProperties();
+        properties.setStrength(4);
+        return new UserPasswordHasher(properties, new SimpleMeterRegistry());
+    }
+
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userEmailIndex = new UserEmailIndex(userRepository, userChangeRepository);
+        userCache = new UserCache(new UserCacheProperties());
+        userSearchIndex = new UserSearchIndex(userRepository, userChangeRepository);
+        userService = new UserServiceImpl(userRepository, userEmailIndex, userSearchIndex, userCache, new UserChangeCounter(), userWriteBehindQueue,
+                userPasswordHasher, userChangeOutbox, new TaskExecutorAdapter(Runnable::run), replicaRoutingDataSource);
     }
 
     @Nested
     class getUsersTests {
         @Test
         void getUsers_ShouldReturnEmptyList_WhenNoUsersExist() {
-            when(userRepository.findAll()).thenReturn(Collections.emptyList());
+            when(userRepository.findAllByOrderByIdAsc(Limit.of(10))).thenReturn(Collections.emptyList());
 
-            List<User> result = userService.getUsers();
+            List<UserSummary> result = userService.getUsers(null, 10);
 
             assertTrue(result.isEmpty());
-            verify(userRepository).findAll();
+            verify(userRepository).findAllByOrderByIdAsc(Limit.of(10));
+        }
+
+        @Test
+        void getUsers_ShouldReturnFirstPage_WhenCursorIsNull() {
+            UserSummary user = toUserSummary(new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null));
+            List<UserSummary> users = new ArrayList<>();
+            users.add(user);
+
+            when(userRepository.findAllByOrderByIdAsc(Limit.of(10))).thenReturn(users);
+
+            List<UserSummary> result = userService.getUsers(null, 10);
+
+            assertEquals(users, result);
+            verify(userRepository).findAllByOrderByIdAsc(Limit.of(10));
         }
 
         @Test
-        void getUsers_ShouldReturnUsers_WhenUsersExist() {
-            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678");
-            List<User> users = new ArrayList<>();
+        void getUsers_ShouldReturnUsersAfterCursor_WhenCursorIsPresent() {
+            UUID after = UUID.randomUUID();
+            UserSummary user = toUserSummary(new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null));
+            List<UserSummary> users = new ArrayList<>();
             users.add(user);
 
-            when(userRepository.findAll()).thenReturn(users);
+            when(userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(10))).thenReturn(users);
 
-            List<User> result = userService.getUsers();
+            List<UserSummary> result = userService.getUsers(after, 10);
 
             assertEquals(users, result);
-            verify(userRepository).findAll();
+            verify(userRepository).findByIdGreaterThanOrderByIdAsc(after, Limit.of(10));
+        }
+    }
+
+    @Nested
+    class streamUsersTests {
+        @Test
+        void streamUsers_ShouldVisitEveryUser() {
+            UserSummary first = toUserSummary(new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null));
+            UserSummary second = toUserSummary(new User(UUID.randomUUID(), "Test 2", "test2@gmail.com", "12345678", null));
+            List<UserSummary> visited = new ArrayList<>();
+
+            when(userRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(first, second));
+
+            userService.streamUsers(visited::add);
+
+            assertEquals(List.of(first, second), visited);
         }
     }
 
@@ -63,24 +166,50 @@ class UserServiceImplTest {
         void getUserById_ShouldThrowUserNotFoundException_WhenUserDoesNotExist() {
             UUID id = UUID.randomUUID();
 
-            when(userRepository.findById(id)).thenReturn(Optional.empty());
+            when(userRepository.findSummaryById(id)).thenReturn(Optional.empty());
 
             Exception exception = assertThrows(UserNotFoundException.class, () -> userService.getUserById(id));
 
             assertEquals("Usuário não encontrado.", exception.getMessage());
-            verify(userRepository).findById(id);
+            verify(userRepository).findSummaryById(id);
         }
 
         @Test
         void getUserById_ShouldReturnUser_WhenUserExists() {
-            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678");
+            UserSummary user = toUserSummary(new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null));
+
+            when(userRepository.findSummaryById(user.getId())).thenReturn(Optional.of(user));
+
+            UserSummary result = userService.getUserById(user.getId());
+
+            assertEquals(user, result);
+            verify(userRepository).findSummaryById(user.getId());
+        }
+
+        @Test
+        void getUserById_ShouldServeFromCache_WhenUserWasAlreadyLoaded() {
+            UserSummary user = toUserSummary(new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null));
 
-            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+            when(userRepository.findSummaryById(user.getId())).thenReturn(Optional.of(user));
 
-            User result = userService.getUserById(user.getId());
+            userService.getUserById(user.getId());
+            UserSummary result = userService.getUserById(user.getId());
 
             assertEquals(user, result);
-            verify(userRepository).findById(user.getId());
+            assertEquals(1, userCache.stats().hitCount());
+            verify(userRepository, times(1)).findSummaryById(user.getId());
+        }
+
+        @Test
+        void getUserById_ShouldCacheNotFound_WhenUserDoesNotExist() {
+            UUID id = UUID.randomUUID();
+
+            when(userRepository.findSummaryById(id)).thenReturn(Optional.empty());
+
+            assertThrows(UserNotFoundException.class, () -> userService.getUserById(id));
+            assertThrows(UserNotFoundException.class, () -> userService.getUserById(id));
+
+            verify(userRepository, times(1)).findSummaryById(id);
         }
     }
 
@@ -88,29 +217,133 @@ class UserServiceImplTest {
     class saveUserTests {
         @Test
         void saveUser_ShouldThrowUserEmailAlreadyExistsException_WhenEmailAlreadyExists() {
-            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678");
-
-            when(userRepository.existsByEmail(user.getEmail())).thenReturn(true);
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null);
+            userEmailIndex.reserve(user.getEmail());
 
             Exception exception = assertThrows(UserEmailAlreadyExistsException.class, () -> userService.saveUser(user));
 
             assertEquals("Esse e-mail já existe.", exception.getMessage());
-            verify(userRepository).existsByEmail(user.getEmail());
+            verifyNoInteractions(userRepository);
         }
 
         @Test
         void saveUser_ShouldSaveUser_WhenEmailDoesNotExist() {
-            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678");
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null);
 
-            when(userRepository.existsByEmail(user.getEmail())).thenReturn(false);
             when(userRepository.save(user)).thenReturn(user);
 
             User result = userService.saveUser(user);
 
             assertEquals(user, result);
+            assertTrue(userEmailIndex.contains(user.getEmail()));
+            assertEquals(user.getId(), userSearchIndex.search("test", null, 10).get(0).getId());
 
-            verify(userRepository).existsByEmail(user.getEmail());
             verify(userRepository).save(user);
+            verify(userChangeOutbox).created(List.of(user));
+        }
+
+        @Test
+        void saveUser_ShouldThrowUserEmailAlreadyExistsException_WhenUniqueConstraintIsViolated() {
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null);
+
+            when(userRepository.save(user)).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+            Exception exception = assertThrows(UserEmailAlreadyExistsException.class, () -> userService.saveUser(user));
+
+            assertEquals("Esse e-mail já existe.", exception.getMessage());
+            assertFalse(userEmailIndex.contains(user.getEmail()));
+        }
+
+        @Test
+        void saveUser_ShouldReleaseEmail_WhenSaveFails() {
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null);
+
+            when(userRepository.save(user)).thenThrow(new IllegalStateException());
+
+            assertThrows(IllegalStateException.class, () -> userService.saveUser(user));
+
+            assertFalse(userEmailIndex.contains(user.getEmail()));
+        }
+
+        @Test
+        void saveUser_ShouldAllowOnlyOneConcurrentSave_WhenEmailsAreEqual() throws Exception {
+            User first = new User(null, "Test", "test@gmail.com", "12345678", null);
+            User second = new User(null, "Test 2", "test@gmail.com", "12345678", null);
+
+            when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            List<Callable<Boolean>> saves = List.of(() -> trySave(first), () -> trySave(second));
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+
+            try {
+                long saved = executor.invokeAll(saves).stream()
+                        .filter(future -> {
+                            try {
+                                return future.get();
+                            } catch (Exception ex) {
+                                throw new IllegalStateException(ex);
+                            }
+                        })
+                        .count();
+
+                assertEquals(1, saved);
+                verify(userRepository, times(1)).save(any(User.class));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private boolean trySave(User user) {
+            try {
+                userService.saveUser(user);
+                return true;
+            } catch (UserEmailAlreadyExistsException ex) {
+                return false;
+            }
+        }
+    }
+
+    @Nested
+    class enqueueUserTests {
+        @Test
+        void enqueueUser_ShouldAssignIdAndEnqueue_WhenEmailDoesNotExist() {
+            User user = new User(null, "Test", "test@gmail.com", "12345678", null);
+
+            User result = userService.enqueueUser(user);
+
+            assertNotNull(result.getId());
+            assertTrue(userEmailIndex.contains(user.getEmail()));
+            verify(userWriteBehindQueue).enqueue(user);
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        void enqueueUser_ShouldReleaseEmail_WhenQueueIsFull() {
+            User user = new User(null, "Test", "test@gmail.com", "12345678", null);
+
+            doThrow(new UserQueueFullException("Fila de cadastro cheia. Tente novamente em instantes.")).when(userWriteBehindQueue).enqueue(user);
+
+            assertThrows(UserQueueFullException.class, () -> userService.enqueueUser(user));
+            assertFalse(userEmailIndex.contains(user.getEmail()));
+        }
+
+        @Test
+        void getUserWriteStatus_ShouldReturnPersisted_WhenUserIsNoLongerQueued() {
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", 0L);
+
+            when(userRepository.findSummaryById(user.getId())).thenReturn(Optional.of(toUserSummary(user)));
+
+            assertEquals(UserWriteStatus.State.PERSISTED, userService.getUserWriteStatus(user.getId()).getState());
+        }
+
+        @Test
+        void getUserWriteStatus_ShouldReturnQueueStatus_WhenUserIsQueued() {
+            UUID id = UUID.randomUUID();
+
+            when(userWriteBehindQueue.status(id)).thenReturn(UserWriteStatus.pending());
+
+            assertEquals(UserWriteStatus.State.PENDING, userService.getUserWriteStatus(id).getState());
+            verifyNoInteractions(userRepository);
         }
     }
 
@@ -134,12 +367,13 @@ class UserServiceImplTest {
             user.setName("Test");
             user.setEmail("test@gmail.com");
 
-            when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+            when(userRepository.findSummaryById(user.getId())).thenReturn(Optional.empty());
 
             Exception exception = assertThrows(UserNotFoundException.class, () -> userService.updateUser(user.getId(), user));
 
             assertEquals("Usuário não encontrado.", exception.getMessage());
-            verify(userRepository).findById(user.getId());
+            assertFalse(userEmailIndex.contains(user.getEmail()));
+            verify(userRepository, never()).updateUserById(any(), any(), any(), any());
         }
 
         @Test
@@ -149,12 +383,101 @@ class UserServiceImplTest {
             user.setName("Test");
             user.setEmail("test@gmail.com");
 
-            when(userRepository.existsByEmail(user.getEmail())).thenReturn(true);
+            userEmailIndex.reserve(user.getEmail());
 
             Exception exception = assertThrows(UserEmailAlreadyExistsException.class, () -> userService.updateUser(user.getId(), user));
 
             assertEquals("Esse e-mail já existe.", exception.getMessage());
-            verify(userRepository).existsByEmail(user.getEmail());
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        void updateUser_ShouldThrowUserEmailAlreadyExistsException_WhenConstraintIsViolated() {
+            User storedUser = new User(UUID.randomUUID(), "Old", "old@gmail.com", "12345678", 0L);
+            User updatedUser = new User();
+            updatedUser.setEmail("test@gmail.com");
+
+            when(userRepository.findSummaryById(storedUser.getId())).thenReturn(Optional.of(toUserSummary(storedUser)));
+            when(userRepository.updateUserById(storedUser.getId(), null, "test@gmail.com", 0L))
+                    .thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+            assertThrows(UserEmailAlreadyExistsException.class, () -> userService.updateUser(storedUser.getId(), updatedUser));
+            assertFalse(userEmailIndex.contains("test@gmail.com"));
+        }
+
+        @Test
+        void updateUser_ShouldUpdateWithStoredVersion_WhenCachedUserIsStale() {
+            User cachedUser = new User(UUID.randomUUID(), "Old", "old@gmail.com", "12345678", 0L);
+            User storedUser = new User(cachedUser.getId(), "Renamed", "old@gmail.com", "12345678", 1L);
+            User updatedUser = new User();
+            updatedUser.setEmail("test@gmail.com");
+
+            when(userRepository.findSummaryById(cachedUser.getId()))
+                    .thenReturn(Optional.of(toUserSummary(cachedUser)), Optional.of(toUserSummary(storedUser)));
+            when(userRepository.updateUserById(cachedUser.getId(), null, "test@gmail.com", 1L)).thenReturn(1);
+
+            userService.getUserById(cachedUser.getId());
+            User result = userService.updateUser(cachedUser.getId(), updatedUser);
+
+            assertEquals("Renamed", result.getName());
+            assertEquals(2L, result.getVersion());
+        }
+
+        @Test
+        void updateUser_ShouldThrowUserVersionConflictException_WhenUserChangedConcurrently() {
+            User storedUser = new User(UUID.randomUUID(), "Old", "old@gmail.com", "12345678", 0L);
+            User updatedUser = new User();
+            updatedUser.setEmail("test@gmail.com");
+            userEmailIndex.reserve(storedUser.getEmail());
+
+            when(userRepository.findSummaryById(storedUser.getId())).thenReturn(Optional.of(toUserSummary(storedUser)));
+            when(userRepository.updateUserById(storedUser.getId(), null, "test@gmail.com", 0L)).thenReturn(0);
+
+            assertThrows(UserVersionConflictException.class, () -> userService.updateUser(storedUser.getId(), updatedUser));
+            assertFalse(userEmailIndex.contains("test@gmail.com"));
+            assertTrue(userEmailIndex.contains("old@gmail.com"));
+        }
+
+        @Test
+        void updateUser_ShouldKeepIndexes_WhenTransactionRollsBack() {
+            User storedUser = new User(UUID.randomUUID(), "Old", "old@gmail.com", "12345678", 0L);
+            User updatedUser = new User();
+            updatedUser.setName("Test");
+            updatedUser.setEmail("test@gmail.com");
+            userEmailIndex.reserve(storedUser.getEmail());
+
+            when(userRepository.findSummaryById(storedUser.getId())).thenReturn(Optional.of(toUserSummary(storedUser)));
+            when(userRepository.updateUserById(storedUser.getId(), "Test", "test@gmail.com", 0L)).thenReturn(1);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                userService.updateUser(storedUser.getId(), updatedUser);
+
+                assertTrue(userEmailIndex.contains("old@gmail.com"));
+                assertTrue(userSearchIndex.search("test", null, 10).isEmpty());
+
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertTrue(userEmailIndex.contains("old@gmail.com"));
+            assertFalse(userEmailIndex.contains("test@gmail.com"));
+            assertTrue(userSearchIndex.search("test", null, 10).isEmpty());
+        }
+
+        @Test
+        void updateUser_ShouldThrowUserPreconditionFailedException_WhenGivenVersionIsStale() {
+            User storedUser = new User(UUID.randomUUID(), "Old", "old@gmail.com", "12345678", 3L);
+            User updatedUser = new User();
+            updatedUser.setName("Test");
+            updatedUser.setVersion(2L);
+
+            when(userRepository.findSummaryById(storedUser.getId())).thenReturn(Optional.of(toUserSummary(storedUser)));
+            when(userRepository.updateUserById(storedUser.getId(), "Test", null, 2L)).thenReturn(0);
+
+            assertThrows(UserPreconditionFailedException.class, () -> userService.updateUser(storedUser.getId(), updatedUser));
         }
 
         @Test
@@ -164,17 +487,39 @@ class UserServiceImplTest {
             user.setName("Test");
             user.setEmail("test@gmail.com");
 
-            when(userRepository.existsByEmail(user.getEmail())).thenReturn(false);
-            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-            when(userRepository.save(user)).thenReturn(user);
+            User storedUser = new User(user.getId(), "Old", "old@gmail.com", "12345678", 0L);
+            userEmailIndex.reserve(storedUser.getEmail());
+
+            when(userRepository.findSummaryById(user.getId())).thenReturn(Optional.of(toUserSummary(storedUser)));
+            when(userRepository.updateUserById(user.getId(), "Test", "test@gmail.com", 0L)).thenReturn(1);
 
             User result = userService.updateUser(user.getId(), user);
 
-            assertEquals(user, result);
+            assertEquals(user.getName(), result.getName());
+            assertEquals(user.getEmail(), result.getEmail());
+            assertEquals(1L, result.getVersion());
+            assertTrue(userEmailIndex.contains("test@gmail.com"));
+            assertFalse(userEmailIndex.contains("old@gmail.com"));
 
-            verify(userRepository).existsByEmail(user.getEmail());
-            verify(userRepository).findById(user.getId());
-            verify(userRepository).save(user);
+            verify(userRepository, never()).save(any());
+            verify(userChangeOutbox).updated(List.of(result));
+        }
+
+        @Test
+        void updateUser_ShouldInvalidateCachedUser_WhenUserIsUpdated() {
+            User storedUser = new User(UUID.randomUUID(), "Old", "old@gmail.com", "12345678", 0L);
+            User updatedUser = new User();
+            updatedUser.setName("Test");
+
+            when(userRepository.findSummaryById(storedUser.getId())).thenReturn(Optional.of(toUserSummary(storedUser)));
+            when(userRepository.updateUserById(storedUser.getId(), "Test", null, 0L)).thenReturn(1);
+
+            userService.getUserById(storedUser.getId());
+            userService.updateUser(storedUser.getId(), updatedUser);
+            userService.getUserById(storedUser.getId());
+
+            // Once to fill the cache, once inside the update, once to reload what the update invalidated.
+            verify(userRepository, times(3)).findSummaryById(storedUser.getId());
         }
     }
 
@@ -184,25 +529,144 @@ class UserServiceImplTest {
         void deleteUser_ShouldThrowUserNotFoundException_WhenUserDoesNotExist() {
             UUID id = UUID.randomUUID();
 
-            when(userRepository.findById(id)).thenReturn(Optional.empty());
+            when(userRepository.findSummaryById(id)).thenReturn(Optional.empty());
 
             Exception exception = assertThrows(UserNotFoundException.class, () -> userService.getUserById(id));
 
             assertEquals("Usuário não encontrado.", exception.getMessage());
-            verify(userRepository).findById(id);
+            verify(userRepository).findSummaryById(id);
         }
 
         @Test
         void deleteUser_ShouldDeleteUser_WhenUserExists() {
-            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678");
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null);
+
+            userEmailIndex.reserve(user.getEmail());
+
+            when(userRepository.findSummaryById(user.getId())).thenReturn(Optional.of(toUserSummary(user)));
+            when(userRepository.deleteUserById(user.getId())).thenReturn(1);
+
+            userSearchIndex.put(user);
+
+            userService.deleteUser(user.getId(), null);
+
+            assertFalse(userEmailIndex.contains(user.getEmail()));
+            assertTrue(userSearchIndex.search("test", null, 10).isEmpty());
+            verify(userRepository).findSummaryById(user.getId());
+            verify(userRepository).deleteUserById(user.getId());
+            verify(userChangeOutbox).deleted(user.getId(), null);
+        }
+
+        @Test
+        void deleteUser_ShouldThrowUserPreconditionFailedException_WhenGivenVersionIsStale() {
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", 3L);
+
+            userEmailIndex.reserve(user.getEmail());
+
+            when(userRepository.findSummaryById(user.getId())).thenReturn(Optional.of(toUserSummary(user)));
+            when(userRepository.deleteUserByIdAndVersion(user.getId(), 2L)).thenReturn(0);
+
+            assertThrows(UserPreconditionFailedException.class, () -> userService.deleteUser(user.getId(), 2L));
+            assertTrue(userEmailIndex.contains(user.getEmail()));
+            verify(userRepository, never()).deleteUserById(any());
+        }
+
+        @Test
+        void deleteUser_ShouldInvalidateCachedUser_WhenUserIsDeleted() {
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null);
+
+            when(userRepository.findSummaryById(user.getId())).thenReturn(Optional.of(toUserSummary(user)), Optional.empty());
+            when(userRepository.deleteUserById(user.getId())).thenReturn(1);
+
+            userService.getUserById(user.getId());
+            userService.deleteUser(user.getId(), null);
+
+            assertThrows(UserNotFoundException.class, () -> userService.getUserById(user.getId()));
+            verify(userRepository, times(2)).findSummaryById(user.getId());
+        }
+    }
+
+    @Nested
+    class saveUsersTests {
+        @Test
+        void saveUsers_ShouldSaveOnlyUsersWithAvailableEmails() {
+            User existing = new User(null, "Test", "test@gmail.com", "12345678", null);
+            User first = new User(null, "Test 2", "test2@gmail.com", "12345678", null);
+            User duplicate = new User(null, "Test 3", "test2@gmail.com", "12345678", null);
+            userEmailIndex.reserve(existing.getEmail());
+
+            List<UserBatchResult> results = userService.saveUsers(List.of(existing, first, duplicate));
+
+            assertInstanceOf(UserEmailAlreadyExistsException.class, results.get(0).getError());
+            assertEquals(first, results.get(1).getUser());
+            assertInstanceOf(UserEmailAlreadyExistsException.class, results.get(2).getError());
+            verify(userRepository).saveAll(List.of(first));
+        }
 
-            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-            doNothing().when(userRepository).delete(user);
+        @Test
+        void saveUsers_ShouldReleaseEmails_WhenUniqueConstraintIsViolated() {
+            User user = new User(null, "Test", "test@gmail.com", "12345678", null);
+
+            when(userRepository.saveAll(List.of(user))).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+            assertThrows(UserEmailAlreadyExistsException.class, () -> userService.saveUsers(List.of(user)));
+
+            assertFalse(userEmailIndex.contains(user.getEmail()));
+        }
+    }
+
+    @Nested
+    class updateUsersTests {
+        @Test
+        void updateUsers_ShouldReportResultPerUser() {
+            User storedUser = new User(UUID.randomUUID(), "Old", "old@gmail.com", "12345678", null);
+            User missingUser = new User(UUID.randomUUID(), "Test", null, null, null);
+            User emptyUser = new User(storedUser.getId(), null, null, null, null);
+            User updatedUser = new User(storedUser.getId(), "Test", "test@gmail.com", null, null);
+            userEmailIndex.reserve(storedUser.getEmail());
+
+            when(userRepository.findAllById(List.of(missingUser.getId(), emptyUser.getId(), updatedUser.getId())))
+                    .thenReturn(List.of(storedUser));
+
+            List<UserBatchResult> results = userService.updateUsers(List.of(missingUser, emptyUser, updatedUser));
+
+            assertInstanceOf(UserNotFoundException.class, results.get(0).getError());
+            assertInstanceOf(UserFieldsNullException.class, results.get(1).getError());
+            assertEquals("test@gmail.com", results.get(2).getUser().getEmail());
+            assertTrue(userEmailIndex.contains("test@gmail.com"));
+            assertFalse(userEmailIndex.contains("old@gmail.com"));
+            verify(userRepository).flush();
+        }
+
+        @Test
+        void updateUsers_ShouldThrowUserVersionConflictException_WhenUserChangedConcurrently() {
+            User storedUser = new User(UUID.randomUUID(), "Old", "old@gmail.com", "12345678", 0L);
+            User updatedUser = new User(storedUser.getId(), null, "test@gmail.com", null, null);
 
-            userService.deleteUser(user.getId());
+            when(userRepository.findAllById(List.of(storedUser.getId()))).thenReturn(List.of(storedUser));
+            doThrow(new ObjectOptimisticLockingFailureException(User.class, storedUser.getId())).when(userRepository).flush();
 
-            verify(userRepository).findById(user.getId());
-            verify(userRepository).delete(user);
+            assertThrows(UserVersionConflictException.class, () -> userService.updateUsers(List.of(updatedUser)));
+            assertFalse(userEmailIndex.contains("test@gmail.com"));
+        }
+    }
+
+    @Nested
+    class deleteUsersTests {
+        @Test
+        void deleteUsers_ShouldDeleteFoundUsersInOneStatement() {
+            User storedUser = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", null);
+            UUID missingId = UUID.randomUUID();
+            userEmailIndex.reserve(storedUser.getEmail());
+
+            when(userRepository.findAllById(List.of(storedUser.getId(), missingId))).thenReturn(List.of(storedUser));
+
+            List<UserBatchResult> results = userService.deleteUsers(List.of(storedUser.getId(), missingId));
+
+            assertTrue(results.get(0).isSuccess());
+            assertInstanceOf(UserNotFoundException.class, results.get(1).getError());
+            assertFalse(userEmailIndex.contains(storedUser.getEmail()));
+            verify(userRepository).deleteAllByIdInBatch(List.of(storedUser.getId()));
         }
     }
 
@@ -212,20 +676,69 @@ class UserServiceImplTest {
         void existsUserByEmail_ShouldReturnFalse_WhenUserDoesNotExist() {
             String email = "test@gmail.com";
 
-            when(userRepository.existsByEmail(email)).thenReturn(false);
-
             assertFalse(userService.existsUserByEmail(email));
-            verify(userRepository).existsByEmail(email);
+            verifyNoInteractions(userRepository);
         }
 
         @Test
         void existsUserByEmail_ShouldReturnTrue_WhenUserExists() {
             String email = "test@gmail.com";
+            userEmailIndex.reserve(email);
+
+            assertTrue(userService.existsUserByEmail(email));
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        void existsUserByEmail_ShouldReturnTrue_WhenEmailIsLoadedFromRepository() {
+            String email = "test@gmail.com";
 
-            when(userRepository.existsByEmail(email)).thenReturn(true);
+            when(userRepository.findAllEmails()).thenReturn(List.of(email));
+            userEmailIndex.load();
 
             assertTrue(userService.existsUserByEmail(email));
-            verify(userRepository).existsByEmail(email);
+            verify(userRepository, only()).findAllEmails();
+        }
+    }
+
+    @Nested
+    class authenticateTests {
+        @Test
+        void authenticate_ShouldReturnUserAndRehash_WhenStoredPasswordIsPlaintext() {
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", "12345678", 0L);
+
+            when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+            assertEquals(user, userService.authenticate(user.getEmail(), "12345678").join());
+            verify(userRepository).updatePasswordById(eq(user.getId()), startsWith("$2a$04$"), eq("12345678"));
+        }
+
+        @Test
+        void authenticate_ShouldNotRehash_WhenHashIsCurrent() {
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", userPasswordHasher.hash("12345678").join(), 0L);
+
+            when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+            assertEquals(user, userService.authenticate(user.getEmail(), "12345678").join());
+            verify(userRepository, never()).updatePasswordById(any(), any(), any());
+        }
+
+        @Test
+        void authenticate_ShouldThrowUserInvalidCredentialsException_WhenPasswordDoesNotMatch() {
+            User user = new User(UUID.randomUUID(), "Test", "test@gmail.com", userPasswordHasher.hash("12345678").join(), 0L);
+
+            when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+            CompletionException exception = assertThrows(CompletionException.class, () -> userService.authenticate(user.getEmail(), "87654321").join());
+            assertInstanceOf(UserInvalidCredentialsException.class, exception.getCause());
+            verify(userRepository, never()).updatePasswordById(any(), any(), any());
+        }
+
+        @Test
+        void authenticate_ShouldThrowUserInvalidCredentialsException_WhenEmailDoesNotExist() {
+            when(userRepository.findByEmail("test@gmail.com")).thenReturn(Optional.empty());
+
+            assertThrows(UserInvalidCredentialsException.class, () -> userService.authenticate("test@gmail.com", "12345678"));
         }
     }
-}
\ No newline at end of file
+}